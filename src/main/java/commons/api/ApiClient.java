@@ -0,0 +1,116 @@
+package commons.api;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The ApiClient class sends JSON and form requests to an HTTP API, e.g. to set up test data through the backend instead
+ * of the user interface.
+ *
+ * All ApiClient instances share one HTTP client, which keeps its connections alive, so consecutive requests to the same
+ * API don't pay the TCP/TLS handshake again.
+ */
+public class ApiClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiClient.class);
+    private static final Json JSON = new Json();
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final URI baseUri;
+    private final Duration requestTimeout;
+
+    /**
+     * Constructs a new ApiClient for the API at the given base URL.
+     *
+     * @param baseUrl the base URL of the API; request paths are resolved against it
+     * @param requestTimeout the maximum time to wait for a response
+     */
+    public ApiClient(String baseUrl, Duration requestTimeout) {
+        LOGGER.info("Constructing ApiClient with base URL: " + baseUrl);
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param path the path of the resource, relative to the base URL
+     * @param bearerToken the access token to send in the Authorization header, or null
+     * @return the response
+     */
+    public ApiResponse get(String path, String bearerToken) {
+        return send(newRequest(path, bearerToken).GET().build());
+    }
+
+    /**
+     * Sends a POST request with a JSON body.
+     *
+     * @param path the path of the resource, relative to the base URL
+     * @param body the object to send as JSON (map, list, string, number, boolean or bean)
+     * @param bearerToken the access token to send in the Authorization header, or null
+     * @return the response
+     */
+    public ApiResponse postJson(String path, Object body, String bearerToken) {
+        return send(newRequest(path, bearerToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.toJson(body)))
+                .build());
+    }
+
+    /**
+     * Sends a POST request with a form body (application/x-www-form-urlencoded).
+     *
+     * @param path the path of the resource, relative to the base URL
+     * @param formFields the form fields
+     * @return the response
+     */
+    public ApiResponse postForm(String path, Map<String, String> formFields) {
+        String form = formFields.entrySet().stream()
+                .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return send(newRequest(path, null)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build());
+    }
+
+    private HttpRequest.Builder newRequest(String path, String bearerToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path.startsWith("/") ? path.substring(1) : path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (bearerToken != null) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        return builder;
+    }
+
+    private ApiResponse send(HttpRequest request) {
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            LOGGER.info(request.method() + " " + request.uri() + " returned " + response.statusCode() + " in " + Duration.ofNanos(System.nanoTime() - startNanos).toMillis() + " ms");
+            return new ApiResponse(response.statusCode(), response.body());
+        } catch (IOException e) {
+            LOGGER.error("API request failed: " + request.method() + " " + request.uri(), e);
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during API request: " + request.method() + " " + request.uri(), e);
+        }
+    }
+}
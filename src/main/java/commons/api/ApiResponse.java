@@ -0,0 +1,33 @@
+package commons.api;
+
+import org.openqa.selenium.json.Json;
+
+import java.util.Map;
+
+/**
+ * The response of an API request: its HTTP status code and body.
+ *
+ * @param statusCode the HTTP status code
+ * @param body the response body, empty if there is none
+ */
+public record ApiResponse(int statusCode, String body) {
+    private static final Json JSON = new Json();
+
+    /**
+     * Returns whether the status code is a success (2xx).
+     *
+     * @return true if the request succeeded, false otherwise
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Parses the body as a JSON object.
+     *
+     * @return the JSON object as a map, empty if the body is empty
+     */
+    public Map<String, Object> getBodyAsMap() {
+        return body.isBlank() ? Map.of() : JSON.toType(body, Json.MAP_TYPE);
+    }
+}
@@ -0,0 +1,72 @@
+package commons.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The VirtualThreads class creates executors running each task on its own virtual thread when the JDK supports them
+ * (Java 21 or higher), and on its own platform thread otherwise.
+ *
+ * The project is built for Java 17, so the virtual thread API is looked up by reflection: the same build uses virtual
+ * threads when run on a newer JDK.
+ */
+public final class VirtualThreads {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+
+    // Prevent instantiation of this class
+    private VirtualThreads() {}
+
+    /**
+     * Returns whether the JDK supports virtual threads.
+     *
+     * @return true if virtual threads are supported, false otherwise
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor that starts a new thread for each task: a virtual thread if supported, otherwise a daemon
+     * platform thread. The threads are named with the given prefix and a sequence number.
+     *
+     * @param threadNamePrefix the prefix of the thread names
+     * @return the executor, to be shut down by the caller
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        if (isSupported()) {
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Object builder = OF_VIRTUAL.invoke(null);
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+                ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+                ExecutorService executor = (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+                LOGGER.info("Created virtual thread per task executor: " + threadNamePrefix);
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Failed to create virtual thread executor, falling back to platform threads: " + e);
+            }
+        }
+        AtomicLong threadNumber = new AtomicLong();
+        LOGGER.info("Virtual threads not supported by Java " + Runtime.version().feature() + ", created platform thread per task executor: " + threadNamePrefix);
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package commons.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records latencies in milliseconds with bounded memory, and estimates their percentiles.
+ *
+ * Latencies are counted in buckets whose width grows with the latency: exact below 8 ms, then 8 buckets per power of two,
+ * so a percentile is estimated within 12.5%. Recording is lock-free and can be done from any number of threads.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_LATENCY = Integer.MAX_VALUE;
+    private static final int BUCKETS = indexOf(MAX_LATENCY) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency. Negative latencies are recorded as 0.
+     *
+     * @param latencyMillis the latency in milliseconds
+     */
+    public void record(long latencyMillis) {
+        long latency = Math.min(Math.max(latencyMillis, 0), MAX_LATENCY);
+        counts.incrementAndGet(indexOf(latency));
+        count.increment();
+        sum.add(latency);
+        max.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return the mean latency in milliseconds, 0 if none was recorded
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) sum.sum() / recorded;
+    }
+
+    /**
+     * Returns the maximum recorded latency.
+     *
+     * @return the maximum latency in milliseconds, 0 if none was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates the latency below which the given percentage of the recorded latencies fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the bucket of the percentile in milliseconds, 0 if none was recorded
+     */
+    public long getPercentile(double percentile) {
+        long recorded = count.sum();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long cumulative = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            cumulative += counts.get(index);
+            if (cumulative >= rank) {
+                return Math.min(upperBoundOf(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int indexOf(long latency) {
+        if (latency < SUB_BUCKETS) {
+            return (int) latency;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(latency) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS * (magnitude + 1) + (int) ((latency >>> magnitude) - SUB_BUCKETS);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << magnitude;
+        return lowerBound + (1L << magnitude) - 1;
+    }
+}
@@ -0,0 +1,132 @@
+package commons.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LoadStatistics class collects the latency histograms of a load run, by transaction name (e.g. a step, a scenario
+ * or a page load), with the number of failed transactions.
+ *
+ * Nothing is recorded until recording is started, so the recording calls cost nothing in functional runs.
+ */
+public final class LoadStatistics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadStatistics.class);
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> FAILURES = new ConcurrentHashMap<>();
+    private static volatile boolean recording;
+
+    // Prevent instantiation of this class
+    private LoadStatistics() {}
+
+    /**
+     * Clears the collected statistics and starts recording.
+     */
+    public static void start() {
+        HISTOGRAMS.clear();
+        FAILURES.clear();
+        recording = true;
+        LOGGER.info("Load statistics recording started");
+    }
+
+    /**
+     * Stops recording. The collected statistics are kept until the next start.
+     */
+    public static void stop() {
+        recording = false;
+        LOGGER.info("Load statistics recording stopped, " + HISTOGRAMS.size() + " transaction(s) recorded");
+    }
+
+    /**
+     * Returns whether the statistics are being recorded.
+     *
+     * @return true if recording, false otherwise
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Records the latency of a transaction, if recording.
+     *
+     * @param transactionName the name of the transaction
+     * @param latencyMillis the latency in milliseconds
+     * @param failed whether the transaction failed
+     */
+    public static void record(String transactionName, long latencyMillis, boolean failed) {
+        if (!recording) {
+            return;
+        }
+        HISTOGRAMS.computeIfAbsent(transactionName, name -> new LatencyHistogram()).record(latencyMillis);
+        if (failed) {
+            FAILURES.computeIfAbsent(transactionName, name -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Returns the latency histograms by transaction name, sorted by name.
+     *
+     * @return a snapshot of the histograms map
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(HISTOGRAMS);
+    }
+
+    /**
+     * Returns the number of failures of a transaction.
+     *
+     * @param transactionName the name of the transaction
+     * @return the number of failures
+     */
+    public static long getFailures(String transactionName) {
+        LongAdder failures = FAILURES.get(transactionName);
+        return failures == null ? 0 : failures.sum();
+    }
+
+    /**
+     * Formats the statistics as a text table: one line per transaction with count, failures, mean, percentiles and max.
+     *
+     * @return the statistics table
+     */
+    public static String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-80s %8s %8s %9s %8s %8s %8s %8s %8s%n",
+                "transaction", "count", "failures", "mean(ms)", "p50", "p90", "p95", "p99", "max"));
+        getHistograms().forEach((name, histogram) -> table.append(String.format(Locale.ROOT, "%-80s %8d %8d %9.1f %8d %8d %8d %8d %8d%n",
+                name.length() > 80 ? name.substring(0, 77) + "..." : name, histogram.getCount(), getFailures(name), histogram.getMean(),
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(95), histogram.getPercentile(99),
+                histogram.getMax())));
+        return table.toString();
+    }
+
+    /**
+     * Writes the statistics as CSV: one row per transaction with count, failures, mean, percentiles and max.
+     *
+     * @param file the CSV file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void writeCsv(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("transaction,count,failures,mean_ms,p50_ms,p90_ms,p95_ms,p99_ms,max_ms");
+            writer.newLine();
+            for (Map.Entry<String, LatencyHistogram> entry : getHistograms().entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                writer.write(String.format(Locale.ROOT, "\"%s\",%d,%d,%.1f,%d,%d,%d,%d,%d", entry.getKey().replace("\"", "\"\""),
+                        histogram.getCount(), getFailures(entry.getKey()), histogram.getMean(), histogram.getPercentile(50),
+                        histogram.getPercentile(90), histogram.getPercentile(95), histogram.getPercentile(99), histogram.getMax()));
+                writer.newLine();
+            }
+        }
+        LOGGER.info("Load statistics written to: " + file);
+    }
+}
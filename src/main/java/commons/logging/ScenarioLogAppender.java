@@ -0,0 +1,205 @@
+package commons.logging;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ScenarioLogAppender class is a log4j appender that sifts the log events by scenario: every event logged with the
+ * 'scenarioId' MDC key set is added to the log of that scenario, so the lines of parallel scenarios don't interleave.
+ * Events without scenario id, or with the id of a scenario that is not running (e.g. logged by a background thread that
+ * inherited the MDC of the scenario that started it), are ignored. A scenario is running between startScenario and
+ * finishScenario.
+ *
+ * The log of a scenario is kept in memory until it exceeds 'BufferSize' characters, then continues in a temporary file.
+ * When the scenario ends, its log is either written to its own file in 'Directory' (e.g. for a failed scenario) or
+ * discarded, so passed scenarios cost no disk I/O.
+ *
+ * Configuration (log4j.properties):
+ * <pre>
+ * log4j.appender.SCENARIO=commons.logging.ScenarioLogAppender
+ * log4j.appender.SCENARIO.Directory=./target/log/scenarios
+ * log4j.appender.SCENARIO.BufferSize=262144
+ * log4j.appender.SCENARIO.layout=org.apache.log4j.PatternLayout
+ * </pre>
+ */
+public class ScenarioLogAppender extends AppenderSkeleton {
+
+    /**
+     * The MDC key of the scenario id.
+     */
+    public static final String SCENARIO_ID_KEY = "scenarioId";
+
+    private static final Set<ScenarioLogAppender> APPENDERS = ConcurrentHashMap.newKeySet();
+    private static final Set<String> RUNNING_SCENARIO_IDS = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, ScenarioLog> scenarioLogs = new ConcurrentHashMap<>();
+    private String directory = "./target/log/scenarios";
+    private int bufferSize = 256 * 1024;
+
+    /**
+     * The log of a scenario: in memory, then in a temporary file once the buffer size is exceeded.
+     */
+    private final class ScenarioLog {
+        private final String scenarioId;
+        private final StringBuilder buffer = new StringBuilder();
+        private Path spillFile;
+        private Writer spillWriter;
+
+        private ScenarioLog(String scenarioId) {
+            this.scenarioId = scenarioId;
+        }
+
+        private synchronized void append(String text) throws IOException {
+            if (spillWriter != null) {
+                spillWriter.write(text);
+                return;
+            }
+            buffer.append(text);
+            if (buffer.length() > bufferSize) {
+                Files.createDirectories(Paths.get(directory));
+                spillFile = Files.createTempFile(Paths.get(directory), scenarioId.replaceAll("[^A-Za-z0-9_-]", "_"), ".log.tmp");
+                spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8);
+                spillWriter.write(buffer.toString());
+                buffer.setLength(0);
+                buffer.trimToSize();
+            }
+        }
+
+        private synchronized void save(Path file) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (spillWriter != null) {
+                spillWriter.close();
+                Files.move(spillFile, file, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.writeString(file, buffer, StandardCharsets.UTF_8);
+            }
+        }
+
+        private synchronized void discard() throws IOException {
+            if (spillWriter != null) {
+                spillWriter.close();
+                Files.deleteIfExists(spillFile);
+            }
+        }
+    }
+
+    /**
+     * Starts the log of the scenario: from now on, the events logged with its id are collected until finishScenario.
+     *
+     * @param scenarioId the scenario id, as set in the MDC
+     */
+    public static void startScenario(String scenarioId) {
+        RUNNING_SCENARIO_IDS.add(scenarioId);
+    }
+
+    /**
+     * Ends the log of the scenario in every ScenarioLogAppender: it is written to the given file name in the directory of
+     * the appender, or discarded if the file name is null.
+     *
+     * @param scenarioId the scenario id, as set in the MDC
+     * @param fileName the file name of the scenario log, or null to discard the log
+     * @return the written log files, empty if the log was discarded or the scenario logged nothing
+     */
+    public static List<Path> finishScenario(String scenarioId, String fileName) {
+        RUNNING_SCENARIO_IDS.remove(scenarioId);
+        List<Path> files = new ArrayList<>();
+        for (ScenarioLogAppender appender : APPENDERS) {
+            appender.finish(scenarioId, fileName).ifPresent(files::add);
+        }
+        return files;
+    }
+
+    /**
+     * Sets the directory of the scenario log files.
+     *
+     * @param directory the directory
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets the number of characters of a scenario log kept in memory before it continues in a temporary file.
+     *
+     * @param bufferSize the buffer size in characters
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void activateOptions() {
+        APPENDERS.add(this);
+    }
+
+    @Override
+    protected void append(LoggingEvent event) {
+        Object scenarioId = event.getMDC(SCENARIO_ID_KEY);
+        if (scenarioId == null || layout == null || !RUNNING_SCENARIO_IDS.contains(scenarioId.toString())) {
+            return;
+        }
+        StringBuilder text = new StringBuilder(layout.format(event));
+        if (layout.ignoresThrowable() && event.getThrowableStrRep() != null) {
+            for (String line : event.getThrowableStrRep()) {
+                text.append(line).append(System.lineSeparator());
+            }
+        }
+        try {
+            scenarioLogs.computeIfAbsent(scenarioId.toString(), ScenarioLog::new).append(text.toString());
+        } catch (IOException e) {
+            errorHandler.error("Failed to write log of scenario: " + scenarioId, e, 0);
+        }
+        if (!RUNNING_SCENARIO_IDS.contains(scenarioId.toString())) {
+            // The scenario finished while the event was appended: its log would never be finished again
+            finish(scenarioId.toString(), null);
+        }
+    }
+
+    private Optional<Path> finish(String scenarioId, String fileName) {
+        ScenarioLog scenarioLog = scenarioLogs.remove(scenarioId);
+        if (scenarioLog == null) {
+            return Optional.empty();
+        }
+        try {
+            if (fileName == null) {
+                scenarioLog.discard();
+                return Optional.empty();
+            }
+            Path file = Paths.get(directory, fileName);
+            scenarioLog.save(file);
+            return Optional.of(file);
+        } catch (IOException e) {
+            LogLog.error("Failed to finish log of scenario: " + scenarioId, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        APPENDERS.remove(this);
+        for (String scenarioId : new ArrayList<>(scenarioLogs.keySet())) {
+            finish(scenarioId, null);
+        }
+    }
+
+    @Override
+    public boolean requiresLayout() {
+        return true;
+    }
+}
@@ -0,0 +1,282 @@
+package commons.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The ResourceMonitor class periodically samples, for every thread running a scenario, the memory (RSS) and CPU usage of
+ * the driver process tree (driver + browser processes, read from '/proc' on Linux), together with the JVM heap usage and
+ * GC activity, and appends the samples as a CSV time series to 'target/resource-monitor/resource-samples.csv'.
+ *
+ * Each scenario thread registers its driver process when the scenario starts and unregisters it when the scenario ends.
+ * Unregistering returns the browser memory growth over the scenario, which can be used to fail leaking scenarios.
+ *
+ * Browser process metrics are only available on Linux; on other platforms they are written as -1.
+ */
+public final class ResourceMonitor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceMonitor.class);
+    private static final Path OUTPUT_FILE = Paths.get("target", "resource-monitor", "resource-samples.csv");
+    private static final String CSV_HEADER = "timestamp,thread,scenario,driverPid,processCount,browserRssMb,browserCpuPercent,jvmHeapUsedMb,jvmHeapCommittedMb,gcCount,gcTimeMs";
+    // Linux reports process CPU time in clock ticks, which is 100 per second on all common kernels
+    private static final double CLOCK_TICKS_PER_SECOND = 100.0;
+    private static final boolean PROC_AVAILABLE = Files.isDirectory(Paths.get("/proc/self"));
+
+    private static final Map<Thread, TrackedScenario> TRACKED_SCENARIOS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService scheduler;
+    private static BufferedWriter writer;
+    private static long lastGcCount;
+    private static long lastGcTimeMillis;
+
+    // Prevent instantiation of this class
+    private ResourceMonitor() {}
+
+    /**
+     * Starts the sampler if it is not running yet.
+     *
+     * @param intervalMillis the time between two samples in milliseconds
+     */
+    public static synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(OUTPUT_FILE.getParent());
+            writer = Files.newBufferedWriter(OUTPUT_FILE, StandardCharsets.UTF_8);
+            writer.write(CSV_HEADER);
+            writer.newLine();
+        } catch (IOException e) {
+            LOGGER.error("Failed to create resource monitor output file: " + OUTPUT_FILE, e);
+            return;
+        }
+        if (!PROC_AVAILABLE) {
+            LOGGER.warn("'/proc' not available, browser process metrics will not be sampled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            // Started by the first monitored scenario: its MDC (scenario id, thread, browser) must not tag the samples
+            Thread thread = new Thread(() -> {
+                MDC.clear();
+                runnable.run();
+            }, "resource-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(ResourceMonitor::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(ResourceMonitor::stop, "resource-monitor-shutdown"));
+        LOGGER.info("Resource monitor started with sampling interval of " + intervalMillis + " ms, writing to: " + OUTPUT_FILE);
+    }
+
+    /**
+     * Stops the sampler and closes the output file.
+     */
+    public static synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to close resource monitor output file", e);
+        }
+    }
+
+    /**
+     * Starts tracking the driver process tree for the scenario executed by the current thread.
+     *
+     * @param scenarioName the name of the scenario
+     * @param driverProcess the driver process, or an empty Optional if it is not known (Grid/Safari sessions)
+     */
+    public static void registerScenario(String scenarioName, Optional<ProcessHandle> driverProcess) {
+        ProcessTreeStats baseline = driverProcess.map(ResourceMonitor::readProcessTree).orElse(ProcessTreeStats.UNAVAILABLE);
+        TRACKED_SCENARIOS.put(Thread.currentThread(), new TrackedScenario(scenarioName, driverProcess.orElse(null), baseline));
+    }
+
+    /**
+     * Stops tracking the scenario executed by the current thread.
+     *
+     * @return the browser memory (RSS) growth in MB between the start and the end of the scenario, or 0 if unknown
+     */
+    public static long unregisterScenario() {
+        TrackedScenario trackedScenario = TRACKED_SCENARIOS.remove(Thread.currentThread());
+        if (trackedScenario == null || trackedScenario.driverProcess == null || trackedScenario.baseline.rssKb < 0) {
+            return 0;
+        }
+        ProcessTreeStats current = readProcessTree(trackedScenario.driverProcess);
+        if (current.rssKb < 0) {
+            return 0;
+        }
+        long growthMb = (current.rssKb - trackedScenario.baseline.rssKb) / 1024;
+        LOGGER.info("Browser memory of scenario '" + trackedScenario.scenarioName + "' changed by " + growthMb + " MB (now " + current.rssKb / 1024 + " MB)");
+        return growthMb;
+    }
+
+    /**
+     * Takes one sample of every tracked scenario and appends it to the output file.
+     */
+    private static void sample() {
+        try {
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            long gcCount = 0;
+            long gcTimeMillis = 0;
+            for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gcBean.getCollectionCount());
+                gcTimeMillis += Math.max(0, gcBean.getCollectionTime());
+            }
+            long gcCountDelta = gcCount - lastGcCount;
+            long gcTimeDelta = gcTimeMillis - lastGcTimeMillis;
+            lastGcCount = gcCount;
+            lastGcTimeMillis = gcTimeMillis;
+
+            long now = System.currentTimeMillis();
+            String jvmColumns = heap.getUsed() / (1024 * 1024) + "," + heap.getCommitted() / (1024 * 1024) + "," + gcCountDelta + "," + gcTimeDelta;
+            StringBuilder lines = new StringBuilder();
+            if (TRACKED_SCENARIOS.isEmpty()) {
+                lines.append(now).append(",,,-1,0,-1,-1,").append(jvmColumns).append(System.lineSeparator());
+            }
+            for (Map.Entry<Thread, TrackedScenario> entry : TRACKED_SCENARIOS.entrySet()) {
+                TrackedScenario trackedScenario = entry.getValue();
+                ProcessTreeStats stats = trackedScenario.driverProcess == null ? ProcessTreeStats.UNAVAILABLE : readProcessTree(trackedScenario.driverProcess);
+                double cpuPercent = trackedScenario.cpuPercentSinceLastSample(stats, now);
+                lines.append(now).append(',')
+                        .append(entry.getKey().getName()).append(',')
+                        .append(trackedScenario.scenarioName.replace(',', ' ')).append(',')
+                        .append(trackedScenario.driverProcess == null ? -1 : trackedScenario.driverProcess.pid()).append(',')
+                        .append(stats.processCount).append(',')
+                        .append(stats.rssKb < 0 ? -1 : stats.rssKb / 1024).append(',')
+                        .append(String.format("%.1f", cpuPercent)).append(',')
+                        .append(jvmColumns).append(System.lineSeparator());
+            }
+            synchronized (ResourceMonitor.class) {
+                if (writer != null) {
+                    writer.write(lines.toString());
+                    writer.flush();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to sample resources", e);
+        }
+    }
+
+    /**
+     * Reads RSS and CPU time of the process and all its descendants from '/proc'.
+     *
+     * @param rootProcess the root process of the tree (the driver process)
+     * @return the summed statistics of the process tree
+     */
+    private static ProcessTreeStats readProcessTree(ProcessHandle rootProcess) {
+        if (!PROC_AVAILABLE || !rootProcess.isAlive()) {
+            return ProcessTreeStats.UNAVAILABLE;
+        }
+        List<ProcessHandle> processes = Stream.concat(Stream.of(rootProcess), rootProcess.descendants()).collect(Collectors.toList());
+        long rssKb = 0;
+        long cpuTicks = 0;
+        for (ProcessHandle process : processes) {
+            rssKb += Math.max(0, readRssKb(process.pid()));
+            cpuTicks += Math.max(0, readCpuTicks(process.pid()));
+        }
+        return new ProcessTreeStats(processes.size(), rssKb, cpuTicks);
+    }
+
+    /**
+     * Reads the resident set size of the process from '/proc/[pid]/status'.
+     *
+     * @param pid the process id
+     * @return the RSS in kB, or -1 if it can't be read (e.g. the process already ended)
+     */
+    private static long readRssKb(long pid) {
+        try (Stream<String> lines = Files.lines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1L);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the user and system CPU time of the process from '/proc/[pid]/stat'.
+     *
+     * @param pid the process id
+     * @return the CPU time in clock ticks, or -1 if it can't be read (e.g. the process already ended)
+     */
+    private static long readCpuTicks(long pid) {
+        try {
+            String stat = Files.readString(Paths.get("/proc", String.valueOf(pid), "stat"));
+            // The process name (2nd field) may contain spaces, so the fields are counted after its closing parenthesis
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Summed statistics of a process tree.
+     */
+    private static final class ProcessTreeStats {
+        private static final ProcessTreeStats UNAVAILABLE = new ProcessTreeStats(0, -1, -1);
+        private final int processCount;
+        private final long rssKb;
+        private final long cpuTicks;
+
+        private ProcessTreeStats(int processCount, long rssKb, long cpuTicks) {
+            this.processCount = processCount;
+            this.rssKb = rssKb;
+            this.cpuTicks = cpuTicks;
+        }
+    }
+
+    /**
+     * A scenario tracked by the monitor, with its baseline and the last CPU sample used to compute CPU usage.
+     */
+    private static final class TrackedScenario {
+        private final String scenarioName;
+        private final ProcessHandle driverProcess;
+        private final ProcessTreeStats baseline;
+        private long lastCpuTicks;
+        private long lastSampleMillis;
+
+        private TrackedScenario(String scenarioName, ProcessHandle driverProcess, ProcessTreeStats baseline) {
+            this.scenarioName = scenarioName;
+            this.driverProcess = driverProcess;
+            this.baseline = baseline;
+            this.lastCpuTicks = baseline.cpuTicks;
+            this.lastSampleMillis = System.currentTimeMillis();
+        }
+
+        private double cpuPercentSinceLastSample(ProcessTreeStats stats, long now) {
+            if (stats.cpuTicks < 0 || lastCpuTicks < 0 || now <= lastSampleMillis) {
+                lastCpuTicks = stats.cpuTicks;
+                lastSampleMillis = now;
+                return -1;
+            }
+            double cpuSeconds = (stats.cpuTicks - lastCpuTicks) / CLOCK_TICKS_PER_SECOND;
+            double elapsedSeconds = (now - lastSampleMillis) / 1000.0;
+            lastCpuTicks = stats.cpuTicks;
+            lastSampleMillis = now;
+            return Math.max(0, cpuSeconds / elapsedSeconds * 100);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package commons.monitor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import commons.concurrent.VirtualThreads;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The RunDashboard class serves a live view of a test run on a local HTTP port (loopback interface only):
+ *
+ * - '/' is a small HTML page showing the run as it progresses.
+ * - '/events' streams server-sent events: 'scenario-started' and 'scenario-finished' as they happen, and a 'stats' event
+ *   every second with the state of every scenario thread (scenario, browser), the registered gauges (e.g. the session
+ *   pool utilization) and the throughput over the last minute.
+ * - '/metrics' returns the same counters and gauges in the Prometheus text format, to be scraped.
+ *
+ * When the dashboard is not started, the update methods do nothing, so they can be called unconditionally.
+ */
+public final class RunDashboard {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RunDashboard.class);
+    private static final Json JSON = new Json();
+    private static final long THROUGHPUT_WINDOW_MILLIS = 60_000;
+    // Events buffered per client; a client that doesn't keep up is disconnected
+    private static final int CLIENT_QUEUE_CAPACITY = 1000;
+    private static final String END_OF_STREAM = "";
+    private static final String PAGE = """
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><title>Test run dashboard</title><style>
+            body{font-family:sans-serif;margin:1.5em}table{border-collapse:collapse;margin-bottom:1em}
+            td,th{border:1px solid #ccc;padding:.2em .6em;text-align:left}.FAILED{color:#cf222e}.PASSED{color:#1a7f37}
+            </style></head><body><h1>Test run dashboard</h1><p id="summary">Connecting...</p>
+            <h2>Threads</h2><table id="threads"></table><h2>Gauges</h2><table id="gauges"></table>
+            <h2>Finished scenarios</h2><table id="finished"></table>
+            <script>
+            const text = value => String(value ?? '').replace(/[&<>"]/g, c => ({'&':'&amp;','<':'&lt;','>':'&gt;','"':'&quot;'})[c]);
+            const events = new EventSource('events');
+            events.addEventListener('stats', message => {
+              const stats = JSON.parse(message.data);
+              document.getElementById('summary').textContent = stats.running + ' running, ' + stats.finished + ' finished ('
+                + Object.entries(stats.finishedByStatus).map(([status, count]) => count + ' ' + status.toLowerCase()).join(', ')
+                + '), ' + stats.throughputPerMinute + ' scenario(s)/minute';
+              document.getElementById('threads').innerHTML = '<tr><th>Thread</th><th>Scenario</th><th>Browser</th><th>Since</th></tr>'
+                + stats.threads.map(t => '<tr><td>' + text(t.thread) + '</td><td>' + text(t.scenario) + '</td><td>' + text(t.browser)
+                + '</td><td>' + text(t.since) + '</td></tr>').join('');
+              document.getElementById('gauges').innerHTML = Object.entries(stats.gauges)
+                .map(([name, value]) => '<tr><td>' + text(name) + '</td><td>' + text(value) + '</td></tr>').join('');
+            });
+            events.addEventListener('scenario-finished', message => {
+              const scenario = JSON.parse(message.data);
+              document.getElementById('finished').insertAdjacentHTML('afterbegin', '<tr><td class="' + text(scenario.status) + '">'
+                + text(scenario.status) + '</td><td>' + text(scenario.name) + '</td><td>' + text(scenario.location) + '</td><td>'
+                + text(scenario.thread) + '</td><td>' + text(scenario.durationMillis) + ' ms</td></tr>');
+            });
+            events.addEventListener('run-finished', () => { document.getElementById('summary').textContent += ' - run finished'; events.close(); });
+            </script></body></html>
+            """;
+
+    /**
+     * The state of a thread running scenarios.
+     *
+     * @param scenario the scenario running on the thread, empty if none
+     * @param browser the state of the browser session of the thread
+     * @param since when the state changed
+     */
+    private record ThreadState(String scenario, String browser, Instant since) {
+    }
+
+    /**
+     * A gauge read when the metrics are requested.
+     *
+     * @param help the description of the gauge
+     * @param value supplies the current value of the gauge
+     */
+    private record Gauge(String help, Supplier<Number> value) {
+    }
+
+    // Keyed by the thread itself, so the state of a thread is removed once the thread has ended
+    private static final Map<Thread, ThreadState> THREAD_STATES = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> FINISHED_BY_STATUS = new ConcurrentHashMap<>();
+    private static final AtomicLong STARTED = new AtomicLong();
+    private static final Deque<Long> RECENT_FINISH_TIMES = new ArrayDeque<>();
+    private static final Set<BlockingQueue<String>> CLIENTS = ConcurrentHashMap.newKeySet();
+    private static volatile boolean running;
+    private static HttpServer server;
+    private static ExecutorService handlerExecutor;
+    private static ScheduledExecutorService scheduler;
+
+    // Prevent instantiation of this class
+    private RunDashboard() {}
+
+    /**
+     * Starts the dashboard on the given port of the loopback interface, if it is not running yet. A port that can't be
+     * bound is logged and the run goes on without dashboard.
+     *
+     * @param port the port to listen on
+     */
+    public static synchronized void start(int port) {
+        if (running) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            LOGGER.warn("Run dashboard not started, port " + port + " unavailable: " + e);
+            return;
+        }
+        // Every server-sent events client holds a thread for the whole run
+        handlerExecutor = VirtualThreads.newThreadPerTaskExecutor("run-dashboard-");
+        server.setExecutor(handlerExecutor);
+        server.createContext("/", RunDashboard::handlePage);
+        server.createContext("/events", RunDashboard::handleEvents);
+        server.createContext("/metrics", RunDashboard::handleMetrics);
+        server.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "run-dashboard-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> broadcast("stats", getStats()), 1, 1, TimeUnit.SECONDS);
+        running = true;
+        LOGGER.info("Run dashboard started at: http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * Sends the final statistics and a 'run-finished' event, ends the event streams and stops the dashboard.
+     */
+    public static synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+        broadcast("stats", getStats());
+        broadcast("run-finished", Map.of());
+        CLIENTS.forEach(client -> client.offer(END_OF_STREAM));
+        server.stop(1);
+        handlerExecutor.shutdownNow();
+        LOGGER.info("Run dashboard stopped");
+    }
+
+    /**
+     * Registers a gauge, published in the 'stats' events and the metrics. A gauge with the same name is replaced.
+     *
+     * @param name the metric name, e.g. 'webdriver_sessions_in_use'
+     * @param help the description of the gauge
+     * @param value supplies the current value of the gauge
+     */
+    public static void registerGauge(String name, String help, Supplier<Number> value) {
+        GAUGES.put(name, new Gauge(help, value));
+    }
+
+    /**
+     * Records that a scenario started on the current thread.
+     *
+     * @param name the name of the scenario
+     * @param location the location of the scenario, e.g. 'features/Login.feature:7'
+     */
+    public static void scenarioStarted(String name, String location) {
+        if (!running) {
+            return;
+        }
+        STARTED.incrementAndGet();
+        String thread = Thread.currentThread().getName();
+        THREAD_STATES.compute(Thread.currentThread(), (key, state) -> new ThreadState(name, state == null ? "none" : state.browser(), Instant.now()));
+        broadcast("scenario-started", Map.of("name", name, "location", location, "thread", thread));
+    }
+
+    /**
+     * Records that the scenario of the current thread finished.
+     *
+     * @param name the name of the scenario
+     * @param location the location of the scenario, e.g. 'features/Login.feature:7'
+     * @param status the status of the scenario, e.g. 'PASSED'
+     * @param durationMillis the duration of the scenario in milliseconds
+     */
+    public static void scenarioFinished(String name, String location, String status, long durationMillis) {
+        if (!running) {
+            return;
+        }
+        FINISHED_BY_STATUS.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+        synchronized (RECENT_FINISH_TIMES) {
+            RECENT_FINISH_TIMES.addLast(System.currentTimeMillis());
+        }
+        String thread = Thread.currentThread().getName();
+        THREAD_STATES.computeIfPresent(Thread.currentThread(), (key, state) -> new ThreadState("", state.browser(), Instant.now()));
+        broadcast("scenario-finished", Map.of("name", name, "location", location, "thread", thread, "status", status, "durationMillis", durationMillis));
+    }
+
+    /**
+     * Records the state of the browser session of the current thread, e.g. 'waiting for browser', 'in use' or 'released'.
+     *
+     * @param browserState the state of the browser session
+     */
+    public static void setBrowserState(String browserState) {
+        if (!running) {
+            return;
+        }
+        THREAD_STATES.compute(Thread.currentThread(), (key, state) -> new ThreadState(state == null ? "" : state.scenario(), browserState, Instant.now()));
+    }
+
+    private static Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long finished = FINISHED_BY_STATUS.values().stream().mapToLong(AtomicLong::get).sum();
+        stats.put("started", STARTED.get());
+        stats.put("running", STARTED.get() - finished);
+        stats.put("finished", finished);
+        Map<String, Long> finishedByStatus = new TreeMap<>();
+        FINISHED_BY_STATUS.forEach((status, count) -> finishedByStatus.put(status, count.get()));
+        stats.put("finishedByStatus", finishedByStatus);
+        stats.put("throughputPerMinute", getThroughputPerMinute());
+        // Runners that start a new thread per scenario would otherwise add a row per scenario for the whole run
+        THREAD_STATES.keySet().removeIf(thread -> !thread.isAlive());
+        stats.put("threads", THREAD_STATES.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getKey().getName()))
+                .map(entry -> Map.of("thread", entry.getKey().getName(), "scenario", entry.getValue().scenario(),
+                        "browser", entry.getValue().browser(), "since", entry.getValue().since().toString()))
+                .toList());
+        Map<String, Number> gauges = new TreeMap<>();
+        GAUGES.forEach((name, gauge) -> gauges.put(name, readGauge(name, gauge)));
+        stats.put("gauges", gauges);
+        return stats;
+    }
+
+    /**
+     * Returns the number of scenarios finished during the last minute.
+     */
+    private static long getThroughputPerMinute() {
+        long windowStart = System.currentTimeMillis() - THROUGHPUT_WINDOW_MILLIS;
+        synchronized (RECENT_FINISH_TIMES) {
+            while (!RECENT_FINISH_TIMES.isEmpty() && RECENT_FINISH_TIMES.peekFirst() < windowStart) {
+                RECENT_FINISH_TIMES.removeFirst();
+            }
+            return RECENT_FINISH_TIMES.size();
+        }
+    }
+
+    private static Number readGauge(String name, Gauge gauge) {
+        try {
+            return gauge.value().get();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to read gauge '" + name + "': " + e);
+            return -1;
+        }
+    }
+
+    /**
+     * Queues the event for every connected client. A client whose queue is full is disconnected.
+     */
+    private static void broadcast(String event, Object data) {
+        if (CLIENTS.isEmpty()) {
+            return;
+        }
+        String message = "event: " + event + "\ndata: " + JSON.toJson(data).replace("\n", "").replace("\r", "") + "\n\n";
+        for (BlockingQueue<String> client : CLIENTS) {
+            if (!client.offer(message)) {
+                CLIENTS.remove(client);
+                client.clear();
+                client.offer(END_OF_STREAM);
+            }
+        }
+    }
+
+    private static void handlePage(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getPath().equals("/")) {
+            sendText(exchange, 404, "text/plain", "Not found");
+            return;
+        }
+        sendText(exchange, 200, "text/html; charset=utf-8", PAGE);
+    }
+
+    private static void handleEvents(HttpExchange exchange) throws IOException {
+        BlockingQueue<String> client = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            CLIENTS.add(client);
+            client.offer("event: stats\ndata: " + JSON.toJson(getStats()).replace("\n", "").replace("\r", "") + "\n\n");
+            if (!running) {
+                // The dashboard stopped before the client connected
+                client.offer(END_OF_STREAM);
+            }
+            // The stream ends with the end of stream marker, queued after the last events by stop()
+            while (true) {
+                String message = client.poll(15, TimeUnit.SECONDS);
+                if (END_OF_STREAM.equals(message)) {
+                    break;
+                }
+                // A comment line keeps idle connections open through proxies
+                body.write((message == null ? ": keep-alive\n\n" : message).getBytes(StandardCharsets.UTF_8));
+                body.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Run dashboard client disconnected: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            CLIENTS.remove(client);
+        }
+    }
+
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        StringBuilder metrics = new StringBuilder();
+        metrics.append("# HELP cucumber_scenarios_started_total Scenarios started\n# TYPE cucumber_scenarios_started_total counter\n")
+                .append("cucumber_scenarios_started_total ").append(STARTED.get()).append('\n');
+        metrics.append("# HELP cucumber_scenarios_finished_total Scenarios finished, by status\n# TYPE cucumber_scenarios_finished_total counter\n");
+        new TreeMap<>(FINISHED_BY_STATUS).forEach((status, count) ->
+                metrics.append("cucumber_scenarios_finished_total{status=\"").append(status.toLowerCase()).append("\"} ").append(count.get()).append('\n'));
+        metrics.append("# HELP cucumber_scenarios_throughput_per_minute Scenarios finished during the last minute\n# TYPE cucumber_scenarios_throughput_per_minute gauge\n")
+                .append("cucumber_scenarios_throughput_per_minute ").append(getThroughputPerMinute()).append('\n');
+        new TreeMap<>(GAUGES).forEach((name, gauge) -> metrics.append("# HELP ").append(name).append(' ').append(gauge.help()).append('\n')
+                .append("# TYPE ").append(name).append(" gauge\n").append(name).append(' ').append(readGauge(name, gauge)).append('\n'));
+        sendText(exchange, 200, "text/plain; version=0.0.4; charset=utf-8", metrics.toString());
+    }
+
+    private static void sendText(HttpExchange exchange, int statusCode, String contentType, String text) throws IOException {
+        byte[] response = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(statusCode, response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 
 /**
  * Helper class for reading properties files.
@@ -37,6 +39,19 @@ public class PropertiesManager {
         return properties.getProperty(key);
     }
 
+    /**
+     * Returns the value of the specified property as a string, or the default value if the property is missing or blank.
+     *
+     * @param key the name of the property to retrieve
+     * @param defaultValue the value to return if the property is missing or blank
+     * @return the string value of the property, or the default value
+     */
+    public String getProperty(String key, String defaultValue) {
+        LOGGER.info("Returning Property of '" + key + "' as string with default value '" + defaultValue + "'");
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
     /**
      * Returns the value of the specified property as a boolean.
      *
@@ -67,6 +82,23 @@ public class PropertiesManager {
         }
     }
 
+    /**
+     * Returns the value of the specified property as an integer, or the default value if the property is missing or blank.
+     *
+     * @param key the name of the property to retrieve
+     * @param defaultValue the value to return if the property is missing or blank
+     * @return the integer value of the property, or the default value
+     * @throws RuntimeException if the property value cannot be converted to an integer
+     */
+    public int getPropertyAsInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            LOGGER.info("Property '" + key + "' not set, returning default int value " + defaultValue);
+            return defaultValue;
+        }
+        return getPropertyAsInt(key);
+    }
+
     /**
      * Returns the value of the specified property as a long.
      *
@@ -86,6 +118,24 @@ public class PropertiesManager {
         }
     }
 
+    /**
+     * Returns the properties whose name starts with the specified prefix, e.g. to read a group of properties whose
+     * names are not known in advance.
+     *
+     * @param prefix the prefix of the property names
+     * @return the property values by name without the prefix, sorted by name
+     */
+    public Map<String, String> getPropertiesWithPrefix(String prefix) {
+        LOGGER.info("Returning Properties with prefix '" + prefix + "'");
+        Map<String, String> prefixedProperties = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                prefixedProperties.put(key.substring(prefix.length()), properties.getProperty(key).trim());
+            }
+        }
+        return prefixedProperties;
+    }
+
     /**
      * Loads the properties file with the specified file path.
      *
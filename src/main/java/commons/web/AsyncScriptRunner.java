@@ -0,0 +1,59 @@
+package commons.web;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * The AsyncScriptRunner class executes the asynchronous scripts of the in-browser waits, making sure the script timeout
+ * of the session is longer than the wait. The script timeout is read once and then tracked, to avoid an extra round-trip
+ * per wait.
+ */
+final class AsyncScriptRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncScriptRunner.class);
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    private final WebDriver driver;
+    private Duration scriptTimeout;
+
+    /**
+     * Constructs a new AsyncScriptRunner for the given WebDriver session.
+     *
+     * @param driver the WebDriver session, must implement JavascriptExecutor
+     */
+    AsyncScriptRunner(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Executes the asynchronous script, which must call its callback within the given wait time.
+     *
+     * @param script the asynchronous script
+     * @param waitTime the maximum time the script waits before calling its callback
+     * @param arguments the script arguments
+     * @return the value passed by the script to its callback
+     */
+    Object execute(String script, Duration waitTime, Object... arguments) {
+        ensureScriptTimeout(waitTime.plus(SCRIPT_TIMEOUT_MARGIN));
+        return ((JavascriptExecutor) driver).executeAsyncScript(script, arguments);
+    }
+
+    /**
+     * Raises the script timeout of the session if it is shorter than required.
+     *
+     * @param required the minimum script timeout
+     */
+    private void ensureScriptTimeout(Duration required) {
+        if (scriptTimeout == null) {
+            scriptTimeout = driver.manage().timeouts().getScriptTimeout();
+        }
+        if (scriptTimeout.compareTo(required) < 0) {
+            driver.manage().timeouts().scriptTimeout(required);
+            scriptTimeout = required;
+            LOGGER.info("Raised script timeout to " + required.getSeconds() + " second(s) for in-browser waits");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package commons.web;
+
+import commons.properties.PropertiesManager;
+
+import java.util.Optional;
+
+/**
+ * The BrowserSelection class resolves the browser of the WebDriver sessions: the 'browser.name' system property, or else
+ * 'web.browser.name' of the config properties file.
+ *
+ * A cross-browser matrix run executes every scenario once per browser in the same JVM, so it selects the browser per
+ * scenario thread instead. The browser selected for the current thread takes precedence over the properties.
+ */
+public final class BrowserSelection {
+    private static final ThreadLocal<String> SELECTED_BROWSER = new ThreadLocal<>();
+
+    // Prevent instantiation of this class
+    private BrowserSelection() {}
+
+    /**
+     * Selects the browser of the WebDriver sessions started by the current thread.
+     *
+     * @param browserName the browser name, e.g. chrome, firefox, edge or safari
+     */
+    public static void select(String browserName) {
+        SELECTED_BROWSER.set(browserName.trim().toLowerCase());
+    }
+
+    /**
+     * Removes the browser selected for the current thread, so the properties apply again.
+     */
+    public static void clear() {
+        SELECTED_BROWSER.remove();
+    }
+
+    /**
+     * Returns the browser selected for the current thread.
+     *
+     * @return the selected browser name, or an empty Optional if no browser is selected for the current thread
+     */
+    public static Optional<String> getSelected() {
+        return Optional.ofNullable(SELECTED_BROWSER.get());
+    }
+
+    /**
+     * Returns the browser of the WebDriver sessions started by the current thread: the selected browser if there is one,
+     * otherwise the 'browser.name' system property or 'web.browser.name' of the config properties file.
+     *
+     * @param propertiesManager the properties manager with the 'web.browser.name' property
+     * @return the browser name in lower case
+     */
+    public static String getBrowserName(PropertiesManager propertiesManager) {
+        String selectedBrowser = SELECTED_BROWSER.get();
+        if (selectedBrowser != null) {
+            return selectedBrowser;
+        }
+        return System.getProperty("browser.name", propertiesManager.getProperty("web.browser.name")).toLowerCase();
+    }
+}
@@ -0,0 +1,207 @@
+package commons.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DriverProcessRegistry class records the process tree (driver process and its browser processes) of every local
+ * WebDriver session, and kills trees that are left behind.
+ *
+ * A periodic watchdog kills a tree when its session has been released (quit) but some of its processes are still alive,
+ * or when its driver stopped answering the '/status' endpoint for several consecutive checks. A JVM shutdown hook kills
+ * every tree still alive when the JVM exits, e.g. after a scenario crashed before its teardown.
+ *
+ * Process ids are refreshed on every watchdog run, so browser processes are still known after their driver process died
+ * and they were re-parented.
+ */
+public final class DriverProcessRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriverProcessRegistry.class);
+    private static final long RELEASE_GRACE_PERIOD_MILLIS = 10_000;
+    private static final int MAX_FAILED_STATUS_CHECKS = 3;
+    private static final long SHUTDOWN_WAIT_MILLIS = 5_000;
+
+    private static final Map<Long, RegisteredTree> REGISTERED_TREES = new ConcurrentHashMap<>();
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private static ScheduledExecutorService watchdog;
+
+    // Prevent instantiation of this class
+    private DriverProcessRegistry() {}
+
+    /**
+     * Registers the process tree of a new WebDriver session and starts the watchdog if it is not running yet.
+     *
+     * @param driverProcess the driver process (chromedriver, geckodriver or msedgedriver)
+     * @param driverServiceUrl the URL the driver service listens on, used to check whether the driver is responsive
+     * @param watchdogIntervalInSeconds the time between two watchdog runs
+     */
+    public static void register(ProcessHandle driverProcess, URL driverServiceUrl, int watchdogIntervalInSeconds) {
+        RegisteredTree registeredTree = new RegisteredTree(driverProcess, driverServiceUrl);
+        registeredTree.refreshProcesses();
+        REGISTERED_TREES.put(driverProcess.pid(), registeredTree);
+        LOGGER.info("Registered driver process tree with PID " + driverProcess.pid() + " (" + registeredTree.processes.size() + " process(es))");
+        startWatchdog(watchdogIntervalInSeconds);
+    }
+
+    /**
+     * Marks the process tree as released, after its session was quit (successfully or not). If processes of the tree
+     * are still alive after a grace period, the watchdog kills them.
+     *
+     * @param driverProcess the driver process of the released session
+     */
+    public static void release(ProcessHandle driverProcess) {
+        RegisteredTree registeredTree = REGISTERED_TREES.get(driverProcess.pid());
+        if (registeredTree != null) {
+            registeredTree.releasedAtMillis = System.currentTimeMillis();
+            LOGGER.info("Released driver process tree with PID " + driverProcess.pid());
+        }
+    }
+
+    /**
+     * Starts the watchdog and registers the shutdown hook, once per JVM.
+     *
+     * @param intervalInSeconds the time between two watchdog runs
+     */
+    private static synchronized void startWatchdog(int intervalInSeconds) {
+        if (watchdog != null) {
+            return;
+        }
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            // The watchdog is started by a scenario, whose MDC it would otherwise inherit for the rest of the run
+            Thread thread = new Thread(() -> {
+                MDC.clear();
+                runnable.run();
+            }, "driver-process-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(DriverProcessRegistry::checkRegisteredTrees, intervalInSeconds, intervalInSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverProcessRegistry::killAll, "driver-process-reaper"));
+        LOGGER.info("Driver process watchdog started with interval of " + intervalInSeconds + " second(s)");
+    }
+
+    /**
+     * Checks every registered tree: forgets trees that ended, and kills released trees still alive after the grace
+     * period as well as trees whose driver is unresponsive.
+     */
+    private static void checkRegisteredTrees() {
+        try {
+            for (RegisteredTree registeredTree : REGISTERED_TREES.values()) {
+                registeredTree.refreshProcesses();
+                if (!registeredTree.isAnyProcessAlive()) {
+                    REGISTERED_TREES.remove(registeredTree.driverProcess.pid());
+                } else if (registeredTree.releasedAtMillis > 0) {
+                    if (System.currentTimeMillis() - registeredTree.releasedAtMillis > RELEASE_GRACE_PERIOD_MILLIS) {
+                        LOGGER.warn("Driver process tree with PID " + registeredTree.driverProcess.pid() + " still alive after its session was released");
+                        kill(registeredTree);
+                    }
+                } else if (!registeredTree.isDriverResponsive()) {
+                    registeredTree.failedStatusChecks++;
+                    if (registeredTree.failedStatusChecks >= MAX_FAILED_STATUS_CHECKS) {
+                        LOGGER.warn("Driver with PID " + registeredTree.driverProcess.pid() + " unresponsive for " + registeredTree.failedStatusChecks + " consecutive checks");
+                        kill(registeredTree);
+                    }
+                } else {
+                    registeredTree.failedStatusChecks = 0;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Driver process watchdog run failed", e);
+        }
+    }
+
+    /**
+     * Kills every registered tree still alive, called when the JVM exits. Trees are given a short time to end on their
+     * own first, because sessions may still be quitting in other shutdown hooks.
+     */
+    private static void killAll() {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline && REGISTERED_TREES.values().stream().anyMatch(RegisteredTree::isAnyProcessAlive)) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (RegisteredTree registeredTree : REGISTERED_TREES.values()) {
+            registeredTree.refreshProcesses();
+            if (registeredTree.isAnyProcessAlive()) {
+                kill(registeredTree);
+            }
+        }
+    }
+
+    /**
+     * Forcibly kills every process of the tree, browser processes first, and forgets the tree.
+     *
+     * @param registeredTree the tree to kill
+     */
+    private static void kill(RegisteredTree registeredTree) {
+        registeredTree.refreshProcesses();
+        int killedCount = 0;
+        for (ProcessHandle process : registeredTree.processes) {
+            if (!process.equals(registeredTree.driverProcess) && process.isAlive() && process.destroyForcibly()) {
+                killedCount++;
+            }
+        }
+        if (registeredTree.driverProcess.isAlive() && registeredTree.driverProcess.destroyForcibly()) {
+            killedCount++;
+        }
+        REGISTERED_TREES.remove(registeredTree.driverProcess.pid());
+        LOGGER.warn("Killed " + killedCount + " orphaned process(es) of driver process tree with PID " + registeredTree.driverProcess.pid());
+    }
+
+    /**
+     * The process tree of one WebDriver session.
+     */
+    private static final class RegisteredTree {
+        private final ProcessHandle driverProcess;
+        private final URI statusUri;
+        // Process handles also hold the process start time, so a reused PID is never mistaken for a tree process
+        private final Set<ProcessHandle> processes = ConcurrentHashMap.newKeySet();
+        private volatile long releasedAtMillis;
+        private int failedStatusChecks;
+
+        private RegisteredTree(ProcessHandle driverProcess, URL driverServiceUrl) {
+            this.driverProcess = driverProcess;
+            this.statusUri = URI.create(driverServiceUrl.toString().replaceAll("/$", "") + "/status");
+        }
+
+        private void refreshProcesses() {
+            processes.removeIf(process -> !process.isAlive());
+            processes.add(driverProcess);
+            driverProcess.descendants().forEach(processes::add);
+        }
+
+        private boolean isAnyProcessAlive() {
+            return processes.stream().anyMatch(ProcessHandle::isAlive);
+        }
+
+        private boolean isDriverResponsive() {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(statusUri).timeout(Duration.ofSeconds(10)).GET().build();
+                return HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package commons.web;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The ElementObserverWait class waits for an element condition inside the browser, in a single asynchronous script call,
+ * instead of polling the condition over the WebDriver protocol.
+ *
+ * The script checks the condition whenever the DOM changes (MutationObserver), when a matching element enters or leaves
+ * the viewport or changes size (IntersectionObserver), at the end of CSS transitions and animations, and on a short
+ * in-page timer as a safety net. The conditions mirror the ExpectedConditions used by the WebDriverManager waits.
+ *
+ * Only locators that resolve to a CSS selector, XPath or link text are supported (i.e. all standard By locators).
+ */
+final class ElementObserverWait {
+
+    private static final String OBSERVE_SCRIPT = """
+            var target = arguments[0], condition = arguments[1], timeout = arguments[2];
+            var done = arguments[arguments.length - 1];
+            var finished = false, mutationObserver, intersectionObserver, timer, deadline;
+            function evaluate() {
+              var elements = findElements(target);
+              if (elements.length === 0) return null;
+              switch (condition) {
+                case 'PRESENCE': return elements[0];
+                case 'PRESENCE_OF_ALL': return elements;
+                case 'VISIBILITY': return isVisible(elements[0]) ? elements[0] : null;
+                case 'VISIBILITY_OF_ALL': return elements.every(isVisible) ? elements : null;
+                case 'CLICKABLE': return isVisible(elements[0]) && !elements[0].disabled ? elements[0] : null;
+              }
+              return null;
+            }
+            function finish(result) {
+              if (finished) return;
+              finished = true;
+              if (mutationObserver) mutationObserver.disconnect();
+              if (intersectionObserver) intersectionObserver.disconnect();
+              clearInterval(timer);
+              document.removeEventListener('transitionend', check, true);
+              document.removeEventListener('animationend', check, true);
+              done(result);
+            }
+            function check() {
+              if (finished) return;
+              try {
+                var result = evaluate();
+                if (result) return finish(result);
+              } catch (e) {
+                return finish({error: String(e)});
+              }
+              if (Date.now() >= deadline) return finish(null);
+              if (intersectionObserver) {
+                intersectionObserver.disconnect();
+                findElements(target).forEach(function (element) { intersectionObserver.observe(element); });
+              }
+            }
+            deadline = Date.now() + timeout;
+            mutationObserver = new MutationObserver(check);
+            mutationObserver.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});
+            if (window.IntersectionObserver) intersectionObserver = new IntersectionObserver(check);
+            document.addEventListener('transitionend', check, true);
+            document.addEventListener('animationend', check, true);
+            timer = setInterval(check, 250);
+            check();
+            """ + InPageLocator.FIND_ELEMENTS_FUNCTION + InPageLocator.IS_VISIBLE_FUNCTION;
+
+    private final AsyncScriptRunner asyncScriptRunner;
+
+    /**
+     * The condition to wait for, as in the corresponding ExpectedConditions method.
+     */
+    enum Condition {
+        PRESENCE("presence of element"),
+        PRESENCE_OF_ALL("presence of any elements"),
+        VISIBILITY("visibility of element"),
+        VISIBILITY_OF_ALL("visibility of all elements"),
+        CLICKABLE("element to be clickable");
+
+        private final String description;
+
+        Condition(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * Constructs a new ElementObserverWait with the given script runner.
+     *
+     * @param asyncScriptRunner the runner of the asynchronous scripts of the WebDriver session
+     */
+    ElementObserverWait(AsyncScriptRunner asyncScriptRunner) {
+        this.asyncScriptRunner = asyncScriptRunner;
+    }
+
+    /**
+     * Returns whether the locator can be evaluated inside the browser.
+     *
+     * @param locator the By object used to locate the element(s)
+     * @return true if the locator is supported, false otherwise
+     */
+    static boolean supports(By locator) {
+        return InPageLocator.supports(locator);
+    }
+
+    /**
+     * Waits in the browser until the condition holds for the element(s) located by the given By object.
+     *
+     * @param locator the By object used to locate the element(s), must be supported
+     * @param condition the condition to wait for
+     * @param timeout the maximum time to wait
+     * @return the WebElement, or the list of WebElement for PRESENCE_OF_ALL and VISIBILITY_OF_ALL
+     * @throws TimeoutException if the condition doesn't hold within the timeout
+     * @throws JavascriptException if the script fails, e.g. because the page was unloaded during the wait
+     */
+    Object until(By locator, Condition condition, Duration timeout) {
+        Object result = asyncScriptRunner.execute(OBSERVE_SCRIPT, timeout, InPageLocator.toScriptArgument(locator), condition.name(), timeout.toMillis());
+        if (result instanceof Map<?, ?> error && error.containsKey("error")) {
+            throw new JavascriptException("Element observer failed for locator " + locator + ": " + error.get("error"));
+        }
+        if (result == null) {
+            throw new TimeoutException("Expected condition failed: waiting for " + condition.description + " located by: " + locator
+                    + " (tried for " + timeout.getSeconds() + " second(s) with element observer)");
+        }
+        return result;
+    }
+}
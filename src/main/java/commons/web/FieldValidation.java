@@ -0,0 +1,19 @@
+package commons.web;
+
+import java.util.List;
+
+/**
+ * The native (HTML5 constraint validation) state of a form field, as read by WebDriverManager.getFieldValidations.
+ *
+ * @param found whether the field was found on the page
+ * @param valid whether the field value satisfies its constraints (always true for elements without constraint validation)
+ * @param validationMessage the message the browser shows for the field, empty if the field is valid
+ * @param failedConstraints the failed ValidityState constraints, e.g. 'valueMissing' or 'typeMismatch'
+ */
+public record FieldValidation(boolean found, boolean valid, String validationMessage, List<String> failedConstraints) {
+
+    /**
+     * The validation state of a field that was not found on the page.
+     */
+    public static final FieldValidation NOT_FOUND = new FieldValidation(false, true, "", List.of());
+}
@@ -0,0 +1,66 @@
+package commons.web;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The FieldValidationReader class reads the native validation state (validity and validationMessage) of several form
+ * fields in a single script call. The browser validation bubble is not part of the DOM, so this is the way to verify
+ * the messages it shows.
+ */
+final class FieldValidationReader {
+
+    private static final String READ_SCRIPT = """
+            var constraints = ['valueMissing', 'typeMismatch', 'patternMismatch', 'tooLong', 'tooShort', 'rangeUnderflow',
+              'rangeOverflow', 'stepMismatch', 'badInput', 'customError'];
+            return arguments[0].map(function (target) {
+              var element = findElements(target)[0];
+              if (!element) return null;
+              if (!element.validity) return {valid: true, validationMessage: '', failedConstraints: []};
+              return {
+                valid: element.validity.valid,
+                validationMessage: element.validationMessage || '',
+                failedConstraints: constraints.filter(function (constraint) { return element.validity[constraint]; })
+              };
+            });
+            """ + InPageLocator.FIND_ELEMENTS_FUNCTION;
+
+    private final WebDriver driver;
+
+    /**
+     * Constructs a new FieldValidationReader for the given WebDriver session.
+     *
+     * @param driver the WebDriver session, must implement JavascriptExecutor
+     */
+    FieldValidationReader(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Reads the validation state of the fields located by the given By objects (first matching element each).
+     *
+     * @param locators the By objects used to locate the fields
+     * @return the validation state by locator, in the given order
+     */
+    @SuppressWarnings("unchecked")
+    Map<By, FieldValidation> read(List<By> locators) {
+        List<Map<String, Object>> targets = new ArrayList<>();
+        locators.forEach(locator -> targets.add(InPageLocator.toScriptArgument(locator, driver)));
+        List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(READ_SCRIPT, targets);
+        Map<By, FieldValidation> validations = new LinkedHashMap<>();
+        for (int i = 0; i < locators.size(); i++) {
+            Map<String, Object> result = results.get(i);
+            validations.put(locators.get(i), result == null ? FieldValidation.NOT_FOUND : new FieldValidation(true,
+                    Boolean.TRUE.equals(result.get("valid")),
+                    String.valueOf(result.get("validationMessage")),
+                    List.copyOf((List<String>) result.get("failedConstraints"))));
+        }
+        return validations;
+    }
+}
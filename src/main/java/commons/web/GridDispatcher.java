@@ -0,0 +1,205 @@
+package commons.web;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The GridDispatcher class creates RemoteWebDriver sessions on a Selenium Grid (hub or standalone).
+ *
+ * Before asking the Grid for a new session, the dispatcher reads the Grid '/status' endpoint and checks that at least one
+ * node has a free slot for the requested browser. If all slots are busy, the calling scenario is queued (blocked) and the
+ * status is polled again until a slot frees up or the queue timeout expires. The status check and the session request
+ * are done one scenario at a time, so the Grid status seen by the next scenario already includes the session created by
+ * the previous one; a scenario waiting between two polls doesn't block the other scenarios.
+ *
+ * One dispatcher instance is shared per Grid URL within the JVM.
+ */
+public class GridDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDispatcher.class);
+    private static final Map<String, GridDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+    private final String gridUrl;
+    private final HttpClient httpClient;
+    private final ReentrantLock dispatchLock = new ReentrantLock(true);
+
+    /**
+     * Constructs a new GridDispatcher for the specified Grid URL.
+     *
+     * @param gridUrl the base URL of the Selenium Grid, e.g. http://localhost:4444
+     */
+    private GridDispatcher(String gridUrl) {
+        LOGGER.info("Constructing GridDispatcher for Grid URL: '" + gridUrl + "'");
+        this.gridUrl = gridUrl.endsWith("/") ? gridUrl.substring(0, gridUrl.length() - 1) : gridUrl;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    /**
+     * Returns the GridDispatcher shared by all scenarios for the specified Grid URL.
+     *
+     * @param gridUrl the base URL of the Selenium Grid, e.g. http://localhost:4444
+     * @return the shared GridDispatcher instance
+     */
+    public static GridDispatcher forUrl(String gridUrl) {
+        return DISPATCHERS.computeIfAbsent(gridUrl, GridDispatcher::new);
+    }
+
+    /**
+     * Waits for a free Grid slot matching the browser of the given capabilities, then creates a RemoteWebDriver session.
+     *
+     * @param capabilities the capabilities (browser options) of the session to create
+     * @param clientConfig the HTTP client configuration of the WebDriver wire protocol
+     * @param queueTimeoutInSeconds the maximum time to wait in the queue for a free slot
+     * @param pollIntervalInSeconds the time to wait between two Grid status checks
+     * @return The RemoteWebDriver instance
+     * @throws SessionNotCreatedException if no slot became free within the queue timeout
+     */
+    public WebDriver dispatch(Capabilities capabilities, ClientConfig clientConfig, int queueTimeoutInSeconds, int pollIntervalInSeconds) {
+        String browserName = capabilities.getBrowserName();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(queueTimeoutInSeconds);
+        LOGGER.info("Queuing scenario for a '" + browserName + "' slot on Grid: " + gridUrl);
+        try {
+            while (true) {
+                WebDriver driver = tryDispatch(capabilities, clientConfig, deadline);
+                if (driver != null) {
+                    return driver;
+                }
+                if (System.nanoTime() > deadline) {
+                    LOGGER.error("No free '" + browserName + "' slot on Grid within " + queueTimeoutInSeconds + " second(s)");
+                    throw new SessionNotCreatedException("No free '" + browserName + "' slot on Grid " + gridUrl + " within " + queueTimeoutInSeconds + " second(s)");
+                }
+                LOGGER.info("No free '" + browserName + "' slot on Grid, waiting " + pollIntervalInSeconds + " second(s)");
+                TimeUnit.SECONDS.sleep(pollIntervalInSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a free Grid slot", e);
+        }
+    }
+
+    /**
+     * Checks the Grid for a free slot matching the browser of the given capabilities and, if there is one, creates a
+     * RemoteWebDriver session. The dispatch lock is only held for the check and the session creation, so a scenario
+     * waiting for a busy browser doesn't hold up the scenarios of the other browsers.
+     *
+     * @param capabilities the capabilities (browser options) of the session to create
+     * @param clientConfig the HTTP client configuration of the WebDriver wire protocol
+     * @param deadline the System.nanoTime() after which the scenario stops waiting in the queue
+     * @return The RemoteWebDriver instance, or null if no slot is free
+     * @throws InterruptedException if interrupted while waiting for the dispatch lock
+     * @throws SessionNotCreatedException if the dispatch lock was not acquired before the deadline
+     */
+    private WebDriver tryDispatch(Capabilities capabilities, ClientConfig clientConfig, long deadline) throws InterruptedException {
+        String browserName = capabilities.getBrowserName();
+        if (!dispatchLock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new SessionNotCreatedException("Timed out waiting in the Grid dispatch queue for a '" + browserName + "' slot");
+        }
+        try {
+            int freeSlots = getFreeSlotCount(browserName);
+            if (freeSlots == 0) {
+                return null;
+            }
+            LOGGER.info("Grid has " + freeSlots + " free '" + browserName + "' slot(s), requesting new session");
+            try {
+                return new RemoteWebDriver(new HttpCommandExecutor(Map.of(), toUrl(gridUrl), clientConfig), capabilities);
+            } catch (SessionNotCreatedException e) {
+                // Another client may have taken the slot between the status check and the session request
+                LOGGER.warn("Grid could not create a '" + browserName + "' session, re-queuing: " + e.getMessage());
+                return null;
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the Grid '/status' endpoint and counts the free slots for the specified browser over all available nodes.
+     * A node never offers more free slots than its 'maxSessions' minus its running sessions.
+     *
+     * @param browserName the browser name to count slots for
+     * @return the number of free slots, or 0 if the Grid is not ready or not reachable
+     */
+    @SuppressWarnings("unchecked")
+    public int getFreeSlotCount(String browserName) {
+        Map<String, Object> value;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(gridUrl + "/status"))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> status = new Json().toType(response.body(), Json.MAP_TYPE);
+            value = (Map<String, Object>) status.get("value");
+        } catch (IOException | JsonException e) {
+            LOGGER.warn("Failed to read Grid status from: " + gridUrl + "/status", e);
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        if (value == null || !Boolean.TRUE.equals(value.get("ready")) || !(value.get("nodes") instanceof List)) {
+            LOGGER.info("Grid is not ready: " + (value == null ? "no status" : value.get("message")));
+            return 0;
+        }
+
+        int freeSlots = 0;
+        for (Map<String, Object> node : (List<Map<String, Object>>) value.get("nodes")) {
+            if (!"UP".equalsIgnoreCase(String.valueOf(node.get("availability")))) {
+                continue;
+            }
+            List<Map<String, Object>> slots = (List<Map<String, Object>>) node.getOrDefault("slots", List.of());
+            int busySlots = 0;
+            int freeMatchingSlots = 0;
+            for (Map<String, Object> slot : slots) {
+                if (slot.get("session") != null) {
+                    busySlots++;
+                    continue;
+                }
+                Map<String, Object> stereotype = (Map<String, Object>) slot.getOrDefault("stereotype", Map.of());
+                if (browserName.equalsIgnoreCase(String.valueOf(stereotype.get("browserName")))) {
+                    freeMatchingSlots++;
+                }
+            }
+            int maxSessions = node.get("maxSessions") instanceof Number ? ((Number) node.get("maxSessions")).intValue() : slots.size();
+            freeSlots += Math.max(0, Math.min(freeMatchingSlots, maxSessions - busySlots));
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Converts the specified Grid URL string to a URL.
+     *
+     * @param gridUrl the Grid URL string
+     * @return the URL object
+     */
+    private static URL toUrl(String gridUrl) {
+        try {
+            return URI.create(gridUrl).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            LOGGER.error("Invalid Grid URL: " + gridUrl, e);
+            throw new IllegalArgumentException("Invalid Grid URL: " + gridUrl, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package commons.web;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The InPageLocator class resolves By locators inside the browser, so scripts can locate elements themselves instead of
+ * locating them with one WebDriver call each.
+ *
+ * Locators resolving to a CSS selector, XPath or link text (i.e. all standard By locators) are passed to the script as
+ * their strategy and value. Other locators are resolved with the WebDriver first, and passed as the located element.
+ */
+final class InPageLocator {
+
+    /**
+     * Script function 'findElements(target)' returning the elements (array) of a target created by toScriptArgument.
+     */
+    static final String FIND_ELEMENTS_FUNCTION = """
+            function findElements(target) {
+              if (target.using === 'css selector') return Array.prototype.slice.call(document.querySelectorAll(target.value));
+              if (target.using === 'xpath') {
+                var snapshot = document.evaluate(target.value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), found = [];
+                for (var i = 0; i < snapshot.snapshotLength; i++) found.push(snapshot.snapshotItem(i));
+                return found;
+              }
+              if (target.using === 'link text' || target.using === 'partial link text') {
+                return Array.prototype.slice.call(document.querySelectorAll('a')).filter(function (link) {
+                  var text = (link.innerText || link.textContent || '').trim();
+                  return target.using === 'link text' ? text === target.value : text.indexOf(target.value) >= 0;
+                });
+              }
+              return target.elements || [];
+            }
+            """;
+
+    /**
+     * Script function 'isVisible(element)' returning whether the element is rendered and visible (an approximation of
+     * WebElement.isDisplayed).
+     */
+    static final String IS_VISIBLE_FUNCTION = """
+            function isVisible(element) {
+              if (!element.isConnected) return false;
+              var style = window.getComputedStyle(element);
+              if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse' || parseFloat(style.opacity) === 0) return false;
+              var rect = element.getBoundingClientRect();
+              return rect.width > 0 && rect.height > 0;
+            }
+            """;
+
+    private static final Set<String> SUPPORTED_STRATEGIES = Set.of("css selector", "xpath", "link text", "partial link text");
+
+    // Prevent instantiation of this class
+    private InPageLocator() {}
+
+    /**
+     * Returns whether the locator can be resolved inside the browser.
+     *
+     * @param locator the By object used to locate the element(s)
+     * @return true if the locator is supported, false otherwise
+     */
+    static boolean supports(By locator) {
+        return locator instanceof By.Remotable
+                && SUPPORTED_STRATEGIES.contains(((By.Remotable) locator).getRemoteParameters().using());
+    }
+
+    /**
+     * Converts a supported locator to a script argument for FIND_ELEMENTS_FUNCTION.
+     *
+     * @param locator the By object used to locate the element(s), must be supported
+     * @return the script argument
+     * @throws IllegalArgumentException if the locator is not supported
+     */
+    static Map<String, Object> toScriptArgument(By locator) {
+        if (!supports(locator)) {
+            throw new IllegalArgumentException("Locator can't be resolved inside the browser: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return Map.of("using", parameters.using(), "value", parameters.value());
+    }
+
+    /**
+     * Converts the locator to a script argument for FIND_ELEMENTS_FUNCTION. Unsupported locators are resolved with the
+     * WebDriver.
+     *
+     * @param locator the By object used to locate the element(s)
+     * @param driver the WebDriver used to resolve unsupported locators
+     * @return the script argument
+     */
+    static Map<String, Object> toScriptArgument(By locator, WebDriver driver) {
+        if (supports(locator)) {
+            return toScriptArgument(locator);
+        }
+        List<WebElement> elements = driver.findElements(locator);
+        return Map.of("elements", elements);
+    }
+}
@@ -0,0 +1,290 @@
+package commons.web;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.log.BaseLogEntry;
+import org.openqa.selenium.bidi.log.LogLevel;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.FetchError;
+import org.openqa.selenium.bidi.network.FetchTimingInfo;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The NetworkCapture class records the network requests (status, sizes and timings) and the browser console errors of a
+ * WebDriver session through WebDriver BiDi, and streams them per scenario into a gzip-compressed NDJSON file (one JSON
+ * event per line).
+ *
+ * Events are buffered in a bounded queue and written by a background thread, so memory use doesn't grow with the number
+ * of requests; when the queue is full, events are dropped and counted. Page-level metrics (time to first byte of
+ * navigations, slow and failed requests, console errors) are computed on the fly.
+ *
+ * The session must be created with BiDi enabled ('webSocketUrl' capability). The BiDi subscriptions are made once per
+ * session and kept when the session is reused; only the recording is started and stopped per scenario.
+ */
+public final class NetworkCapture implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkCapture.class);
+    private static final Json JSON = new Json();
+    private static final Map<String, Object> END_OF_CAPTURE = Map.of();
+    private static final long FINISH_TIMEOUT_SECONDS = 10;
+
+    private final Network network;
+    private final LogInspector logInspector;
+    private final long slowRequestMillis;
+    private final int queueCapacity;
+    private volatile ScenarioRecording recording;
+
+    /**
+     * The metrics of one scenario recording.
+     *
+     * @param file the gzip-compressed NDJSON file of the recording
+     * @param requestCount the number of completed requests
+     * @param failedRequestCount the number of requests that failed or got a response status of 400 or more
+     * @param slowRequestCount the number of requests that took longer than the slow request threshold
+     * @param navigationCount the number of navigation (document) requests
+     * @param maxTimeToFirstByteMillis the longest time to first byte of the navigation requests, -1 if unknown
+     * @param bytesReceived the bytes received by all requests
+     * @param consoleErrorCount the number of console errors and JavaScript exceptions
+     * @param droppedEventCount the number of events dropped because the queue was full
+     */
+    public record Summary(Path file, long requestCount, long failedRequestCount, long slowRequestCount, long navigationCount,
+                          long maxTimeToFirstByteMillis, long bytesReceived, long consoleErrorCount, long droppedEventCount) {
+    }
+
+    /**
+     * Subscribes to the network and log events of the WebDriver session.
+     *
+     * @param driver the WebDriver session, created with BiDi enabled
+     * @param slowRequestMillis the duration above which a request counts as slow
+     * @param queueCapacity the maximum number of events buffered in memory
+     */
+    public NetworkCapture(WebDriver driver, long slowRequestMillis, int queueCapacity) {
+        this.slowRequestMillis = slowRequestMillis;
+        this.queueCapacity = queueCapacity;
+        this.network = new Network(driver);
+        this.logInspector = new LogInspector(driver);
+        network.onResponseCompleted(this::handleResponseCompleted);
+        network.onFetchError(this::handleFetchError);
+        logInspector.onConsoleEntry(this::handleLogEntry);
+        logInspector.onJavaScriptException(this::handleLogEntry);
+        LOGGER.info("Network and console capture subscribed through WebDriver BiDi");
+    }
+
+    /**
+     * Starts recording the events of a scenario into the given file, replacing it if it exists.
+     *
+     * @param file the gzip-compressed NDJSON file to write
+     */
+    public void start(Path file) {
+        stop();
+        try {
+            recording = new ScenarioRecording(file, queueCapacity);
+            LOGGER.info("Network capture started: " + file);
+        } catch (IOException e) {
+            LOGGER.error("Failed to start network capture: " + file, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the current recording, waits until its buffered events are written, and returns its metrics.
+     *
+     * @return the metrics of the recording, or null if no recording was started
+     */
+    public Summary stop() {
+        ScenarioRecording stoppedRecording = recording;
+        if (stoppedRecording == null) {
+            return null;
+        }
+        recording = null;
+        Summary summary = stoppedRecording.finish();
+        LOGGER.info("Network capture stopped: " + summary);
+        return summary;
+    }
+
+    /**
+     * Stops the current recording and unsubscribes from the BiDi events.
+     */
+    @Override
+    public void close() {
+        stop();
+        try {
+            network.close();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to unsubscribe network capture from network events: " + e.getMessage());
+        }
+        try {
+            logInspector.close();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to unsubscribe network capture from console events: " + e.getMessage());
+        }
+    }
+
+    private void handleResponseCompleted(ResponseDetails responseDetails) {
+        ScenarioRecording currentRecording = recording;
+        if (currentRecording == null) {
+            return;
+        }
+        FetchTimingInfo timings = responseDetails.getRequest().getTimings();
+        long durationMillis = timings == null || timings.getResponseEnd() <= 0 ? -1 : Math.round(timings.getResponseEnd() - Math.max(timings.getFetchStart(), timings.getRequestTime()));
+        long timeToFirstByteMillis = timings == null || timings.getResponseStart() <= 0 ? -1 : Math.round(timings.getResponseStart() - Math.max(timings.getFetchStart(), timings.getRequestTime()));
+        boolean navigation = responseDetails.getNavigationId() != null;
+        int status = responseDetails.getResponseData().getStatus();
+
+        currentRecording.requestCount.incrementAndGet();
+        currentRecording.bytesReceived.addAndGet(Math.max(0, responseDetails.getResponseData().getBytesReceived()));
+        if (status >= 400) {
+            currentRecording.failedRequestCount.incrementAndGet();
+        }
+        if (durationMillis > slowRequestMillis) {
+            currentRecording.slowRequestCount.incrementAndGet();
+        }
+        if (navigation) {
+            currentRecording.navigationCount.incrementAndGet();
+            currentRecording.maxTimeToFirstByteMillis.accumulateAndGet(timeToFirstByteMillis, Math::max);
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "response");
+        event.put("timestamp", responseDetails.getTimestamp());
+        event.put("method", responseDetails.getRequest().getMethod());
+        event.put("url", responseDetails.getRequest().getUrl());
+        event.put("status", status);
+        event.put("mimeType", responseDetails.getResponseData().getMimeType());
+        event.put("fromCache", responseDetails.getResponseData().isFromCache());
+        event.put("bytesReceived", responseDetails.getResponseData().getBytesReceived());
+        event.put("bodySize", responseDetails.getResponseData().getBodySize());
+        event.put("durationMs", durationMillis);
+        event.put("ttfbMs", timeToFirstByteMillis);
+        event.put("navigation", navigation);
+        currentRecording.offer(event);
+    }
+
+    private void handleFetchError(FetchError fetchError) {
+        ScenarioRecording currentRecording = recording;
+        if (currentRecording == null) {
+            return;
+        }
+        currentRecording.requestCount.incrementAndGet();
+        currentRecording.failedRequestCount.incrementAndGet();
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "fetchError");
+        event.put("timestamp", fetchError.getTimestamp());
+        event.put("method", fetchError.getRequest().getMethod());
+        event.put("url", fetchError.getRequest().getUrl());
+        event.put("error", fetchError.getErrorText());
+        currentRecording.offer(event);
+    }
+
+    private void handleLogEntry(BaseLogEntry logEntry) {
+        ScenarioRecording currentRecording = recording;
+        if (currentRecording == null || logEntry.getLevel() != LogLevel.ERROR) {
+            return;
+        }
+        currentRecording.consoleErrorCount.incrementAndGet();
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "console");
+        event.put("timestamp", logEntry.getTimestamp());
+        event.put("level", logEntry.getLevel().toString());
+        event.put("text", logEntry.getText());
+        currentRecording.offer(event);
+    }
+
+    /**
+     * The recording of one scenario: the bounded event queue, its writer thread and the metrics.
+     */
+    private static final class ScenarioRecording {
+        private final Path file;
+        private final BlockingQueue<Map<String, Object>> queue;
+        private final Writer writer;
+        private final Thread writerThread;
+        private final AtomicLong requestCount = new AtomicLong();
+        private final AtomicLong failedRequestCount = new AtomicLong();
+        private final AtomicLong slowRequestCount = new AtomicLong();
+        private final AtomicLong navigationCount = new AtomicLong();
+        private final AtomicLong maxTimeToFirstByteMillis = new AtomicLong(-1);
+        private final AtomicLong bytesReceived = new AtomicLong();
+        private final AtomicLong consoleErrorCount = new AtomicLong();
+        private final AtomicLong droppedEventCount = new AtomicLong();
+
+        private ScenarioRecording(Path file, int queueCapacity) throws IOException {
+            this.file = file;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8);
+            this.writerThread = new Thread(this::writeEvents, "network-capture-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+
+        private void offer(Map<String, Object> event) {
+            if (!queue.offer(event)) {
+                droppedEventCount.incrementAndGet();
+            }
+        }
+
+        private void writeEvents() {
+            try (writer) {
+                while (true) {
+                    Map<String, Object> event = queue.take();
+                    if (event == END_OF_CAPTURE) {
+                        break;
+                    }
+                    JSON.newOutput(writer).setPrettyPrint(false).write(event);
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                LOGGER.error("Failed to write network capture: " + file, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Lets the writer thread write the buffered events and waits for it, at most FINISH_TIMEOUT_SECONDS to queue the
+         * end of the capture and as long again to write it. A writer thread that stopped on a write failure (with the
+         * queue possibly full) or doesn't finish in time is interrupted and its file closed, so the teardown never hangs.
+         */
+        private Summary finish() {
+            try {
+                if (!writerThread.isAlive() || !queue.offer(END_OF_CAPTURE, FINISH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Network capture writer not taking events, buffered events discarded: " + file);
+                    writerThread.interrupt();
+                }
+                writerThread.join(TimeUnit.SECONDS.toMillis(FINISH_TIMEOUT_SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (writerThread.isAlive()) {
+                    LOGGER.warn("Network capture writer didn't finish in time, closing: " + file);
+                    writerThread.interrupt();
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        LOGGER.warn("Failed to close network capture: " + file + ". Cause: " + e.getMessage());
+                    }
+                }
+                queue.clear();
+            }
+            return new Summary(file, requestCount.get(), failedRequestCount.get(), slowRequestCount.get(), navigationCount.get(),
+                    maxTimeToFirstByteMillis.get(), bytesReceived.get(), consoleErrorCount.get(), droppedEventCount.get());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package commons.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The PageObjectFactory class creates page objects generically, from any page class with a public constructor taking a
+ * WebDriverManager.
+ *
+ * The constructor of a page class is looked up by reflection once per JVM, the first time the class is used, and kept as
+ * a method handle; creating a page object afterwards costs no reflection. Page classes are only inspected when first
+ * used, so the number of page classes doesn't add to the startup time.
+ */
+public final class PageObjectFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PageObjectFactory.class);
+    private static final Map<Class<?>, MethodHandle> PAGE_CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    // Prevent instantiation of this class
+    private PageObjectFactory() {}
+
+    /**
+     * Creates a page object of the given class.
+     *
+     * @param pageClass the page class, with a public constructor taking a WebDriverManager
+     * @param webDriverManager the WebDriverManager object to be used by the page object
+     * @return the new page object
+     * @throws IllegalArgumentException if the page class has no public constructor taking a WebDriverManager
+     */
+    public static <T> T create(Class<T> pageClass, WebDriverManager webDriverManager) {
+        MethodHandle constructor = PAGE_CONSTRUCTORS.computeIfAbsent(pageClass, PageObjectFactory::findConstructor);
+        try {
+            return pageClass.cast(constructor.invoke(webDriverManager));
+        } catch (RuntimeException | Error e) {
+            LOGGER.error("Failed to create page object: " + pageClass.getName(), e);
+            throw e;
+        } catch (Throwable e) {
+            LOGGER.error("Failed to create page object: " + pageClass.getName(), e);
+            throw new IllegalStateException("Failed to create page object: " + pageClass.getName(), e);
+        }
+    }
+
+    /**
+     * Looks up the public constructor taking a WebDriverManager of the page class.
+     *
+     * @param pageClass the page class
+     * @return the method handle of the constructor
+     */
+    private static MethodHandle findConstructor(Class<?> pageClass) {
+        try {
+            MethodHandle constructor = MethodHandles.lookup().unreflectConstructor(pageClass.getConstructor(WebDriverManager.class));
+            LOGGER.info("Page class " + pageClass.getSimpleName() + " inspected");
+            return constructor;
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Page class " + pageClass.getName() + " has no public constructor taking a WebDriverManager", e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package commons.web;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The PageSettleWait class waits inside the browser until the page has settled, i.e. it stayed quiet for a short window:
+ * - the document is completely loaded and the URL didn't change,
+ * - no fetch/XMLHttpRequest is pending and no new resource was loaded,
+ * - Angular (if used by the page) is stable,
+ * - the DOM didn't change.
+ *
+ * Pending requests are counted by wrapping fetch and XMLHttpRequest the first time the page is checked; requests started
+ * before that are still detected through the resource timing entries when they complete. When the page is unloaded
+ * during the wait (navigation), the new page is awaited within the remaining time.
+ */
+final class PageSettleWait {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PageSettleWait.class);
+    private static final int MAX_SCRIPT_FAILURES = 3;
+
+    private static final String SETTLE_SCRIPT = """
+            var quietMillis = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];
+            var state = window.__pageSettleState;
+            if (!state) {
+              state = window.__pageSettleState = {pendingRequests: 0};
+              if (window.fetch) {
+                var originalFetch = window.fetch;
+                window.fetch = function () {
+                  state.pendingRequests++;
+                  var settle = function () { state.pendingRequests--; };
+                  try {
+                    var response = originalFetch.apply(this, arguments);
+                    response.then(settle, settle);
+                    return response;
+                  } catch (e) {
+                    settle();
+                    throw e;
+                  }
+                };
+              }
+              var originalSend = XMLHttpRequest.prototype.send;
+              XMLHttpRequest.prototype.send = function () {
+                state.pendingRequests++;
+                this.addEventListener('loadend', function () { state.pendingRequests--; });
+                try {
+                  return originalSend.apply(this, arguments);
+                } catch (e) {
+                  state.pendingRequests--;
+                  throw e;
+                }
+              };
+            }
+            function resourceCount() {
+              return window.performance && performance.getEntriesByType ? performance.getEntriesByType('resource').length : 0;
+            }
+            function busyReason() {
+              if (document.readyState !== 'complete') return 'document ' + document.readyState;
+              if (state.pendingRequests > 0) return state.pendingRequests + ' pending request(s)';
+              if (window.getAllAngularTestabilities && !window.getAllAngularTestabilities().every(function (testability) { return testability.isStable(); })) {
+                return 'Angular not stable';
+              }
+              return null;
+            }
+            var start = Date.now(), lastChange = start, url = location.href, resources = resourceCount(), timer;
+            var observer = new MutationObserver(function () { lastChange = Date.now(); });
+            observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});
+            function finish(result) {
+              observer.disconnect();
+              clearInterval(timer);
+              done(result);
+            }
+            function check() {
+              var now = Date.now(), reason = busyReason(), currentResources = resourceCount();
+              if (location.href !== url || currentResources !== resources || reason) {
+                url = location.href;
+                resources = currentResources;
+                lastChange = now;
+              }
+              if (!reason && now - lastChange >= quietMillis) return finish({settled: true, millis: now - start});
+              if (now - start >= timeout) return finish({settled: false, reason: reason || 'page changing'});
+            }
+            timer = setInterval(check, 50);
+            check();
+            """;
+
+    private final AsyncScriptRunner asyncScriptRunner;
+
+    /**
+     * Constructs a new PageSettleWait with the given script runner.
+     *
+     * @param asyncScriptRunner the runner of the asynchronous scripts of the WebDriver session
+     */
+    PageSettleWait(AsyncScriptRunner asyncScriptRunner) {
+        this.asyncScriptRunner = asyncScriptRunner;
+    }
+
+    /**
+     * Waits until the page has stayed quiet for the quiet window.
+     *
+     * @param quietWindow the time the page must stay quiet
+     * @param timeout the maximum time to wait
+     * @return the time it took the page to settle in milliseconds
+     * @throws TimeoutException if the page doesn't settle within the timeout
+     */
+    long until(Duration quietWindow, Duration timeout) {
+        long startNanos = System.nanoTime();
+        int scriptFailures = 0;
+        while (true) {
+            Duration remaining = timeout.minusNanos(System.nanoTime() - startNanos);
+            if (remaining.isNegative() || remaining.isZero()) {
+                throw new TimeoutException("Page not settled within " + timeout.getSeconds() + " second(s): page kept navigating");
+            }
+            try {
+                Map<?, ?> result = (Map<?, ?>) asyncScriptRunner.execute(SETTLE_SCRIPT, remaining, quietWindow.toMillis(), remaining.toMillis());
+                if (Boolean.TRUE.equals(result.get("settled"))) {
+                    return Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+                }
+                throw new TimeoutException("Page not settled within " + timeout.getSeconds() + " second(s): " + result.get("reason"));
+            } catch (JavascriptException e) {
+                // Usually the page was unloaded during the wait: wait for the new page to settle
+                if (++scriptFailures >= MAX_SCRIPT_FAILURES) {
+                    throw e;
+                }
+                LOGGER.info("Page unloaded while waiting for it to settle, waiting for the new page. Cause: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package commons.web;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The PageSnapshot class holds the state of several elements of the page, read at once by WebDriverManager.getPageSnapshot
+ * in a single script call. The snapshot is immutable, so several (soft) assertions can be checked against it without
+ * further calls to the browser.
+ */
+public final class PageSnapshot {
+
+    private final Map<String, ElementState> elementStates;
+
+    /**
+     * The state of an element at the time of the snapshot.
+     *
+     * @param present whether the element was found on the page
+     * @param displayed whether the element was displayed
+     * @param value the value property of the element (form fields), null for elements without value or not found
+     * @param text the visible text of the element, empty if not found
+     * @param attributes the attributes of the element
+     */
+    public record ElementState(boolean present, boolean displayed, String value, String text, Map<String, String> attributes) {
+
+        /**
+         * The state of an element that was not found on the page.
+         */
+        public static final ElementState NOT_FOUND = new ElementState(false, false, null, "", Map.of());
+    }
+
+    /**
+     * Constructs a new PageSnapshot with the given element states.
+     *
+     * @param elementStates the element states by name
+     */
+    PageSnapshot(Map<String, ElementState> elementStates) {
+        this.elementStates = Collections.unmodifiableMap(new LinkedHashMap<>(elementStates));
+    }
+
+    /**
+     * Returns the state of the element with the given name.
+     *
+     * @param name the name of the element given when taking the snapshot
+     * @return the element state
+     * @throws IllegalArgumentException if the snapshot has no element with that name
+     */
+    public ElementState get(String name) {
+        ElementState elementState = elementStates.get(name);
+        if (elementState == null) {
+            throw new IllegalArgumentException("No element named '" + name + "' in page snapshot, elements: " + elementStates.keySet());
+        }
+        return elementState;
+    }
+
+    /**
+     * Returns the value property of the element with the given name, like WebElement.getAttribute("value").
+     *
+     * @param name the name of the element
+     * @return the value, or null if the element has no value or was not found
+     */
+    public String getValue(String name) {
+        return get(name).value();
+    }
+
+    /**
+     * Returns the visible text of the element with the given name.
+     *
+     * @param name the name of the element
+     * @return the text, empty if the element was not found
+     */
+    public String getText(String name) {
+        return get(name).text();
+    }
+
+    /**
+     * Returns whether the element with the given name was displayed.
+     *
+     * @param name the name of the element
+     * @return true if the element was displayed, false otherwise
+     */
+    public boolean isDisplayed(String name) {
+        return get(name).displayed();
+    }
+
+    /**
+     * Returns the attribute of the element with the given name.
+     *
+     * @param name the name of the element
+     * @param attributeName the attribute name
+     * @return the attribute value, or null if the element has no such attribute or was not found
+     */
+    public String getAttribute(String name, String attributeName) {
+        return get(name).attributes().get(attributeName);
+    }
+
+    /**
+     * Returns all element states of the snapshot.
+     *
+     * @return the unmodifiable element states by name
+     */
+    public Map<String, ElementState> asMap() {
+        return elementStates;
+    }
+
+    @Override
+    public String toString() {
+        return "PageSnapshot" + elementStates;
+    }
+}
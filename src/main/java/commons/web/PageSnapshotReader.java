@@ -0,0 +1,70 @@
+package commons.web;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The PageSnapshotReader class reads the state (value, text, visibility and attributes) of several elements in a single
+ * script call.
+ */
+final class PageSnapshotReader {
+
+    private static final String READ_SCRIPT = """
+            var targets = arguments[0], states = {};
+            Object.keys(targets).forEach(function (name) {
+              var element = findElements(targets[name])[0];
+              if (!element) {
+                states[name] = null;
+                return;
+              }
+              var attributes = {};
+              for (var i = 0; i < element.attributes.length; i++) attributes[element.attributes[i].name] = element.attributes[i].value;
+              states[name] = {
+                displayed: isVisible(element),
+                value: 'value' in element && element.value != null ? String(element.value) : null,
+                text: isVisible(element) ? (element.innerText || '').trim() : '',
+                attributes: attributes
+              };
+            });
+            return states;
+            """ + InPageLocator.FIND_ELEMENTS_FUNCTION + InPageLocator.IS_VISIBLE_FUNCTION;
+
+    private final WebDriver driver;
+
+    /**
+     * Constructs a new PageSnapshotReader for the given WebDriver session.
+     *
+     * @param driver the WebDriver session, must implement JavascriptExecutor
+     */
+    PageSnapshotReader(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Reads the state of the elements located by the given By objects (first matching element each).
+     *
+     * @param locators the By objects used to locate the elements, by element name
+     * @return the snapshot of the elements
+     */
+    @SuppressWarnings("unchecked")
+    PageSnapshot read(Map<String, By> locators) {
+        Map<String, Object> targets = new LinkedHashMap<>();
+        locators.forEach((name, locator) -> targets.put(name, InPageLocator.toScriptArgument(locator, driver)));
+        Map<String, Map<String, Object>> states = (Map<String, Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(READ_SCRIPT, targets);
+        Map<String, PageSnapshot.ElementState> elementStates = new LinkedHashMap<>();
+        for (String name : locators.keySet()) {
+            Map<String, Object> state = states.get(name);
+            elementStates.put(name, state == null ? PageSnapshot.ElementState.NOT_FOUND : new PageSnapshot.ElementState(true,
+                    Boolean.TRUE.equals(state.get("displayed")),
+                    (String) state.get("value"),
+                    String.valueOf(state.get("text")),
+                    Map.copyOf((Map<String, String>) state.get("attributes"))));
+        }
+        return new PageSnapshot(elementStates);
+    }
+}
@@ -0,0 +1,58 @@
+package commons.web;
+
+import java.util.List;
+
+/**
+ * The performance metrics of a page load, read from the Navigation Timing, Paint Timing, Largest Contentful Paint,
+ * Layout Instability and Resource Timing APIs of the browser. Times are in milliseconds from the start of the
+ * navigation; a time is -1 when the browser doesn't report it (e.g. LCP and CLS on browsers without support).
+ *
+ * @param url the URL of the page
+ * @param timeToFirstByte the time until the first byte of the document was received
+ * @param firstContentfulPaint the time until the first text or image was painted
+ * @param largestContentfulPaint the time until the largest text or image was painted, so far
+ * @param domContentLoaded the time until the DOMContentLoaded event handlers completed
+ * @param load the time until the load event handlers completed
+ * @param cumulativeLayoutShift the total of the unexpected layout shifts, so far
+ * @param resourceCount the number of resources (scripts, styles, images, requests) loaded by the page
+ * @param transferSize the bytes transferred for the document and its resources (0 for cached or cross-origin resources)
+ */
+public record PageTiming(String url, long timeToFirstByte, long firstContentfulPaint, long largestContentfulPaint,
+                         long domContentLoaded, long load, double cumulativeLayoutShift, long resourceCount,
+                         long transferSize) {
+
+    /**
+     * The metric names used by performance budgets: ttfb, fcp, lcp, dcl, load, cls, resources and transfer.
+     */
+    public static final List<String> METRIC_NAMES = List.of("ttfb", "fcp", "lcp", "dcl", "load", "cls", "resources", "transfer");
+
+    /**
+     * Returns the value of the metric with the given name.
+     *
+     * @param metricName one of the METRIC_NAMES
+     * @return the value of the metric, -1 if not reported by the browser
+     * @throws IllegalArgumentException if the metric name is unknown
+     */
+    public double getMetric(String metricName) {
+        switch (metricName) {
+            case "ttfb":
+                return timeToFirstByte;
+            case "fcp":
+                return firstContentfulPaint;
+            case "lcp":
+                return largestContentfulPaint;
+            case "dcl":
+                return domContentLoaded;
+            case "load":
+                return load;
+            case "cls":
+                return cumulativeLayoutShift;
+            case "resources":
+                return resourceCount;
+            case "transfer":
+                return transferSize;
+            default:
+                throw new IllegalArgumentException("Unknown page timing metric: " + metricName + ", expected one of " + METRIC_NAMES);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package commons.web;
+
+import commons.properties.PropertiesManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The PerformanceCollector class reads the performance metrics of the current page (PageTiming) in a single script call,
+ * checks them against the performance budgets of the config properties file, and aggregates them per page (URL without
+ * query and fragment) across the whole run. The aggregate is written to 'target/performance/page-performance.csv' when
+ * the JVM exits.
+ *
+ * A budget applies to the pages whose URL matches its pattern, and limits any of the PageTiming.METRIC_NAMES:
+ * performance.budget.<name>.url=<URL regex>
+ * performance.budget.<name>.<metric>=<maximum value>
+ *
+ * A page load is aggregated once, however often it is collected; client-side route changes of a single-page application
+ * are not page loads and keep the metrics of the initial load.
+ */
+public final class PerformanceCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceCollector.class);
+    private static final String BUDGET_PREFIX = "performance.budget.";
+    private static final Path OUTPUT_FILE = Paths.get("target", "performance", "page-performance.csv");
+    private static final Duration SCRIPT_WAIT_TIME = Duration.ofSeconds(2);
+    private static final Map<String, PageStats> PAGE_STATS = new ConcurrentHashMap<>();
+    private static final String COLLECT_SCRIPT = """
+            var done = arguments[arguments.length - 1];
+            var result = {url: location.href, timeOrigin: performance.timeOrigin, ttfb: -1, fcp: -1, lcp: -1, dcl: -1, load: -1, cls: -1, resources: 0, transfer: 0};
+            var navigation = performance.getEntriesByType('navigation')[0];
+            if (navigation) {
+              result.ttfb = navigation.responseStart;
+              result.dcl = navigation.domContentLoadedEventEnd || -1;
+              result.load = navigation.loadEventEnd || -1;
+              result.transfer = navigation.transferSize || 0;
+            }
+            performance.getEntriesByType('paint').forEach(function (entry) {
+              if (entry.name === 'first-contentful-paint') result.fcp = entry.startTime;
+            });
+            performance.getEntriesByType('resource').forEach(function (entry) {
+              result.resources++;
+              result.transfer += entry.transferSize || 0;
+            });
+            var observers = [];
+            function observe(type, handle) {
+              try {
+                var observer = new PerformanceObserver(function (list) { list.getEntries().forEach(handle); });
+                observer.observe({type: type, buffered: true});
+                observer.takeRecords().forEach(handle);
+                observers.push(observer);
+                return true;
+              } catch (e) {
+                // Entry type not supported by the browser: the metric stays -1
+                return false;
+              }
+            }
+            observe('largest-contentful-paint', function (entry) { result.lcp = Math.max(result.lcp, entry.startTime); });
+            result.cls = 0;
+            if (!observe('layout-shift', function (entry) { if (!entry.hadRecentInput) result.cls += entry.value; })) {
+              result.cls = -1;
+            }
+            // Buffered entries may also be delivered to the observers in the next task
+            setTimeout(function () {
+              observers.forEach(function (observer) { observer.disconnect(); });
+              done(result);
+            }, 0);
+            """;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PerformanceCollector::writeReport, "performance-report"));
+    }
+
+    private final AsyncScriptRunner asyncScriptRunner;
+    private final boolean collectAfterNavigation;
+    private final List<PerformanceBudget> budgets;
+    private double lastTimeOrigin = -1;
+
+    /**
+     * A performance budget: the maximum values of metrics for the pages whose URL matches the pattern.
+     *
+     * @param name the name of the budget in the config properties file
+     * @param urlPattern the pattern of the page URLs
+     * @param limits the maximum value by metric name
+     */
+    private record PerformanceBudget(String name, Pattern urlPattern, Map<String, Double> limits) {
+    }
+
+    /**
+     * Constructs a new PerformanceCollector for the WebDriver session, reading the budgets from the properties manager.
+     *
+     * @param asyncScriptRunner the runner of the asynchronous scripts of the WebDriver session
+     * @param propertiesManager the properties manager with the 'performance.*' configuration
+     */
+    PerformanceCollector(AsyncScriptRunner asyncScriptRunner, PropertiesManager propertiesManager) {
+        this.asyncScriptRunner = asyncScriptRunner;
+        this.collectAfterNavigation = Boolean.parseBoolean(System.getProperty("performance.collect", propertiesManager.getProperty("performance.collect", "false")));
+        this.budgets = readBudgets(propertiesManager);
+    }
+
+    /**
+     * Returns whether the page performance is collected after each navigation ('performance.collect' property).
+     *
+     * @return true if the page performance is collected after each navigation, false otherwise
+     */
+    public boolean isCollectAfterNavigation() {
+        return collectAfterNavigation;
+    }
+
+    /**
+     * Reads the performance metrics of the current page, and adds them to the run aggregate if the page load wasn't
+     * collected yet. Budget violations are logged as warnings.
+     *
+     * @return the performance metrics of the current page
+     */
+    public PageTiming collect() {
+        Map<?, ?> result = (Map<?, ?>) asyncScriptRunner.execute(COLLECT_SCRIPT, SCRIPT_WAIT_TIME);
+        PageTiming pageTiming = new PageTiming((String) result.get("url"), toLong(result.get("ttfb")), toLong(result.get("fcp")),
+                toLong(result.get("lcp")), toLong(result.get("dcl")), toLong(result.get("load")),
+                ((Number) result.get("cls")).doubleValue(), toLong(result.get("resources")), toLong(result.get("transfer")));
+        double timeOrigin = ((Number) result.get("timeOrigin")).doubleValue();
+        if (timeOrigin != lastTimeOrigin) {
+            lastTimeOrigin = timeOrigin;
+            PAGE_STATS.computeIfAbsent(toPageKey(pageTiming.url()), key -> new PageStats()).add(pageTiming);
+        }
+        LOGGER.info("Collected page performance: " + pageTiming);
+        checkBudgets(pageTiming).forEach(violation -> LOGGER.warn("Performance budget exceeded: " + violation));
+        return pageTiming;
+    }
+
+    /**
+     * Checks the performance metrics of a page against the budgets matching its URL. Metrics not reported by the browser
+     * are not checked.
+     *
+     * @param pageTiming the performance metrics of the page
+     * @return the budget violations, empty if the page is within all its budgets
+     */
+    public List<String> checkBudgets(PageTiming pageTiming) {
+        List<String> violations = new ArrayList<>();
+        for (PerformanceBudget budget : budgets) {
+            if (!budget.urlPattern().matcher(pageTiming.url()).matches()) {
+                continue;
+            }
+            budget.limits().forEach((metricName, limit) -> {
+                double value = pageTiming.getMetric(metricName);
+                if (value > limit) {
+                    violations.add("'" + metricName + "' of " + pageTiming.url() + " is " + format(value) + ", budget '" + budget.name() + "' allows " + format(limit));
+                }
+            });
+        }
+        return violations;
+    }
+
+    /**
+     * Reads the budgets from the 'performance.budget.<name>.url' and 'performance.budget.<name>.<metric>' properties.
+     *
+     * @param propertiesManager the properties manager
+     * @return the budgets, sorted by name
+     * @throws IllegalArgumentException if a budget has no URL pattern or limits an unknown metric
+     */
+    private static List<PerformanceBudget> readBudgets(PropertiesManager propertiesManager) {
+        Map<String, Map<String, String>> budgetProperties = new TreeMap<>();
+        propertiesManager.getPropertiesWithPrefix(BUDGET_PREFIX).forEach((key, value) -> {
+            int separator = key.lastIndexOf('.');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid performance budget property: " + BUDGET_PREFIX + key);
+            }
+            budgetProperties.computeIfAbsent(key.substring(0, separator), name -> new LinkedHashMap<>()).put(key.substring(separator + 1), value);
+        });
+        List<PerformanceBudget> budgets = new ArrayList<>();
+        budgetProperties.forEach((name, properties) -> {
+            String url = properties.remove("url");
+            if (url == null) {
+                throw new IllegalArgumentException("Performance budget '" + name + "' has no property " + BUDGET_PREFIX + name + ".url");
+            }
+            Map<String, Double> limits = new LinkedHashMap<>();
+            properties.forEach((metricName, limit) -> {
+                if (!PageTiming.METRIC_NAMES.contains(metricName)) {
+                    throw new IllegalArgumentException("Performance budget '" + name + "' limits unknown metric '" + metricName + "', expected one of " + PageTiming.METRIC_NAMES);
+                }
+                limits.put(metricName, Double.parseDouble(limit));
+            });
+            budgets.add(new PerformanceBudget(name, Pattern.compile(url), Collections.unmodifiableMap(limits)));
+        });
+        LOGGER.info("Performance budgets configured: " + budgets.size());
+        return Collections.unmodifiableList(budgets);
+    }
+
+    /**
+     * Writes the run aggregate of the page performance metrics as CSV: one row per page with the number of page loads,
+     * and the average and maximum of every metric.
+     */
+    private static void writeReport() {
+        if (PAGE_STATS.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(OUTPUT_FILE.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(OUTPUT_FILE, StandardCharsets.UTF_8)) {
+                StringBuilder header = new StringBuilder("page,loads");
+                PageTiming.METRIC_NAMES.forEach(metricName -> header.append(',').append(metricName).append("_avg,").append(metricName).append("_max"));
+                writer.write(header.toString());
+                writer.newLine();
+                for (Map.Entry<String, PageStats> entry : new TreeMap<>(PAGE_STATS).entrySet()) {
+                    writer.write(entry.getKey() + entry.getValue().toCsvColumns());
+                    writer.newLine();
+                }
+            }
+            LOGGER.info("Page performance of " + PAGE_STATS.size() + " page(s) written to: " + OUTPUT_FILE);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write page performance report: " + OUTPUT_FILE, e);
+        }
+    }
+
+    private static String toPageKey(String url) {
+        int end = url.length();
+        for (char separator : new char[] {'?', '#'}) {
+            int index = url.indexOf(separator);
+            if (index >= 0) {
+                end = Math.min(end, index);
+            }
+        }
+        return url.substring(0, end);
+    }
+
+    private static long toLong(Object value) {
+        return Math.round(((Number) value).doubleValue());
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * The run aggregate of the page loads of one page.
+     */
+    private static final class PageStats {
+        private final Map<String, DoubleSummaryStatistics> metricStats = new LinkedHashMap<>();
+        private long loads;
+
+        private synchronized void add(PageTiming pageTiming) {
+            loads++;
+            for (String metricName : PageTiming.METRIC_NAMES) {
+                double value = pageTiming.getMetric(metricName);
+                if (value >= 0) {
+                    metricStats.computeIfAbsent(metricName, name -> new DoubleSummaryStatistics()).accept(value);
+                }
+            }
+        }
+
+        private synchronized String toCsvColumns() {
+            StringBuilder columns = new StringBuilder(",").append(loads);
+            for (String metricName : PageTiming.METRIC_NAMES) {
+                DoubleSummaryStatistics stats = metricStats.get(metricName);
+                columns.append(',').append(stats == null ? "" : format(Math.round(stats.getAverage() * 1000) / 1000.0))
+                        .append(',').append(stats == null ? "" : format(stats.getMax()));
+            }
+            return columns.toString();
+        }
+    }
+}
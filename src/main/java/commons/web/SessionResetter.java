@@ -0,0 +1,266 @@
+package commons.web;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The SessionResetter class brings a running WebDriver session back to a clean state, so the browser can be reused by
+ * the next scenario instead of being quit and relaunched.
+ *
+ * The reset closes extra windows, clears local/session storage, IndexedDB databases, service workers and cookies of the
+ * current origin (through CDP on Chromium based browsers, and JavaScript/WebDriver on every browser), navigates to
+ * 'about:blank' and restores the viewport. The reset method reports whether every step succeeded; a session should only
+ * be reused when the reset was clean.
+ */
+public class SessionResetter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionResetter.class);
+
+    private static final String CLEAR_STORAGE_SCRIPT = """
+            var done = arguments[arguments.length - 1];
+            var errors = [];
+            try { window.localStorage.clear(); } catch (e) { errors.push('localStorage: ' + e); }
+            try { window.sessionStorage.clear(); } catch (e) { errors.push('sessionStorage: ' + e); }
+            var tasks = [];
+            if (window.indexedDB && indexedDB.databases) {
+                tasks.push(indexedDB.databases().then(function (databases) {
+                    return Promise.all(databases.map(function (database) {
+                        return new Promise(function (resolve) {
+                            var request = indexedDB.deleteDatabase(database.name);
+                            request.onsuccess = function () { resolve(); };
+                            request.onerror = function () { errors.push('indexedDB: ' + database.name); resolve(); };
+                            request.onblocked = function () { errors.push('indexedDB blocked: ' + database.name); resolve(); };
+                        });
+                    }));
+                }));
+            }
+            if (navigator.serviceWorker && navigator.serviceWorker.getRegistrations) {
+                tasks.push(navigator.serviceWorker.getRegistrations().then(function (registrations) {
+                    return Promise.all(registrations.map(function (registration) { return registration.unregister(); }));
+                }));
+            }
+            Promise.all(tasks).then(function () { done(errors); }, function (e) { errors.push(String(e)); done(errors); });
+            """;
+
+    private final WebDriver driver;
+    private final boolean maximizeWindow;
+    private String initialWindowHandle;
+    private Point initialWindowPosition;
+    private Dimension initialWindowSize;
+
+    /**
+     * Constructs a new SessionResetter and records the current window and viewport as the state to reset to.
+     *
+     * @param driver the WebDriver session to reset
+     * @param maximizeWindow whether to maximize the window on reset (true) or restore the recorded window size (false)
+     */
+    public SessionResetter(WebDriver driver, boolean maximizeWindow) {
+        LOGGER.info("Constructing SessionResetter");
+        this.driver = driver;
+        this.maximizeWindow = maximizeWindow;
+        try {
+            this.initialWindowHandle = driver.getWindowHandle();
+            this.initialWindowPosition = driver.manage().window().getPosition();
+            this.initialWindowSize = driver.manage().window().getSize();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to record initial window state, viewport will not be restored on reset", e);
+        }
+    }
+
+    /**
+     * Resets the session to a clean state.
+     *
+     * @return true if every reset step succeeded and the session can be reused, false otherwise
+     */
+    public boolean reset() {
+        LOGGER.info("Resetting WebDriver session");
+        boolean clean = dismissAlert() && closeExtraWindows();
+        String origin = clean ? getCurrentOrigin() : null;
+        clean = clean && clearStorage(origin);
+        // Cookies are deleted while still on the page of the application: on 'about:blank' no cookie is visible to WebDriver
+        clean = clean && deleteCookies();
+        clean = clean && navigateToBlankPage();
+        clean = clean && clearBrowserDataWithCdp(origin);
+        clean = clean && resetViewport();
+
+        if (clean) {
+            LOGGER.info("WebDriver session reset cleanly");
+        } else {
+            LOGGER.warn("WebDriver session reset was not clean");
+        }
+        return clean;
+    }
+
+    /**
+     * Dismisses an open alert, if any, because it would block every other command.
+     *
+     * @return true if no alert is left open, false otherwise
+     */
+    private boolean dismissAlert() {
+        try {
+            driver.switchTo().alert().dismiss();
+            LOGGER.info("Dismissed open alert");
+        } catch (NoAlertPresentException e) {
+            // Nothing to dismiss
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to dismiss alert", e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Closes every window except the initial one (or an arbitrary one if the initial window was closed) and switches to it.
+     *
+     * @return true if exactly one window is left open, false otherwise
+     */
+    private boolean closeExtraWindows() {
+        try {
+            Set<String> windowHandles = driver.getWindowHandles();
+            if (windowHandles.isEmpty()) {
+                LOGGER.warn("No window left open in the session");
+                return false;
+            }
+            String keepWindowHandle = windowHandles.contains(initialWindowHandle) ? initialWindowHandle : windowHandles.iterator().next();
+            for (String windowHandle : windowHandles) {
+                if (!windowHandle.equals(keepWindowHandle)) {
+                    driver.switchTo().window(windowHandle).close();
+                    LOGGER.info("Closed extra window: " + windowHandle);
+                }
+            }
+            driver.switchTo().window(keepWindowHandle);
+            initialWindowHandle = keepWindowHandle;
+            return driver.getWindowHandles().size() == 1;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to close extra windows", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the origin (scheme://host:port) of the current page.
+     *
+     * @return the origin, or null if the current page has no http(s) origin
+     */
+    private String getCurrentOrigin() {
+        try {
+            URI uri = URI.create(driver.getCurrentUrl());
+            if (uri.getScheme() == null || !uri.getScheme().startsWith("http") || uri.getHost() == null) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to read the current page origin", e);
+            return null;
+        }
+    }
+
+    /**
+     * Clears local/session storage, IndexedDB databases and service workers of the current page with JavaScript.
+     *
+     * @param origin the origin of the current page, or null if there is nothing to clear
+     * @return true if the storage was cleared (or there was nothing to clear), false otherwise
+     */
+    private boolean clearStorage(String origin) {
+        if (origin == null || !(driver instanceof JavascriptExecutor)) {
+            return true;
+        }
+        try {
+            Object errors = ((JavascriptExecutor) driver).executeAsyncScript(CLEAR_STORAGE_SCRIPT);
+            if (errors instanceof List && !((List<?>) errors).isEmpty()) {
+                LOGGER.warn("Storage of '" + origin + "' not fully cleared: " + errors);
+                return false;
+            }
+            LOGGER.info("Cleared storage of origin: " + origin);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to clear storage of origin: " + origin, e);
+            return false;
+        }
+    }
+
+    /**
+     * Navigates to 'about:blank', so no page of the previous scenario keeps running.
+     *
+     * @return true if the navigation succeeded, false otherwise
+     */
+    private boolean navigateToBlankPage() {
+        try {
+            driver.get("about:blank");
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to navigate to 'about:blank'", e);
+            return false;
+        }
+    }
+
+    /**
+     * Clears all cookies, and every storage type of the given origin, through CDP on Chromium based browsers.
+     * This also catches data written by the page between the JavaScript clear and the navigation to 'about:blank'.
+     *
+     * @param origin the origin to clear, or null to only clear cookies
+     * @return true if the data was cleared (or CDP is not available), false otherwise
+     */
+    private boolean clearBrowserDataWithCdp(String origin) {
+        if (!(driver instanceof HasCdp)) {
+            return true;
+        }
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            if (origin != null) {
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            }
+            LOGGER.info("Cleared browser data through CDP");
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to clear browser data through CDP", e);
+            return false;
+        }
+    }
+
+    /**
+     * Deletes all cookies visible to the current page, so it must run before navigating away from the application.
+     *
+     * @return true if no cookie is left, false otherwise
+     */
+    private boolean deleteCookies() {
+        try {
+            driver.manage().deleteAllCookies();
+            return driver.manage().getCookies().isEmpty();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to delete cookies", e);
+            return false;
+        }
+    }
+
+    /**
+     * Maximizes the window, or restores the window position and size recorded when this SessionResetter was created.
+     *
+     * @return true if the viewport was reset, false otherwise
+     */
+    private boolean resetViewport() {
+        try {
+            if (maximizeWindow) {
+                driver.manage().window().maximize();
+            } else if (initialWindowSize != null) {
+                driver.manage().window().setPosition(initialWindowPosition);
+                driver.manage().window().setSize(initialWindowSize);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to reset the viewport", e);
+            return false;
+        }
+    }
+}
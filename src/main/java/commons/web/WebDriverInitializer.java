@@ -1,20 +1,34 @@
 package commons.web;
 
 import commons.properties.PropertiesManager;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * The WebDriverInitializer class is responsible for initializing a WebDriver instance based on the browser specified
  * in the configuration properties file. It uses the PropertiesManager class to retrieve configuration properties.
+ * The browser is launched locally, or on a Selenium Grid when 'grid.url' is configured.
  *
  * The class provides a public method initializeWebDriver() to launch/start the web browser window and the WebDriver
  * session. The method returns the WebDriver instance created.
@@ -24,6 +38,11 @@ import org.slf4j.LoggerFactory;
 public class WebDriverInitializer {
     private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverInitializer.class);
     private final PropertiesManager propertiesManager;
+    private final boolean biDiEnabled;
+    private final WireRequestCounter wireRequestCounter = new WireRequestCounter();
+    private DriverService driverService;
+    private String browserName;
+    private Optional<ProcessHandle> driverProcess = Optional.empty();
 
     /**
      * Constructs a new WebDriverInitializer.
@@ -33,81 +52,220 @@ public class WebDriverInitializer {
     protected WebDriverInitializer(PropertiesManager propertiesManager) {
         LOGGER.info("Constructing WebDriverInitializer with the specified properties manager");
         this.propertiesManager = propertiesManager;
+        this.biDiEnabled = Boolean.parseBoolean(System.getProperty("network.capture", propertiesManager.getProperty("network.capture", "false")));
     }
 
     /**
      * Launch/start web browser window and WebDriver session.
+     * If 'grid.url' is configured (system property or config properties file), the session is created on the Selenium Grid,
+     * otherwise the browser is launched on the local machine.
      *
      * @return The WebDriver instance created
      */
     protected WebDriver initializeWebDriver() {
         LOGGER.info("Initializing WebDriver");
-        String browserName = System.getProperty("browser.name", propertiesManager.getProperty("web.browser.name").toLowerCase());
+        browserName = BrowserSelection.getBrowserName(propertiesManager);
         String headless = System.getProperty("headless", propertiesManager.getProperty("headless"));
+        String gridUrl = System.getProperty("grid.url", propertiesManager.getProperty("grid.url", ""));
 
         WebDriver driver;
+        if (!gridUrl.isBlank()) {
+            driver = initializeRemoteWebDriver(gridUrl, browserName, headless);
+        } else {
+            switch (browserName) {
+                case "chrome":
+                    ChromeDriverService chromeDriverService = ChromeDriverService.createDefaultService();
+                    driverService = chromeDriverService;
+                    driver = new ChromeDriver(chromeDriverService, createChromeOptions(headless), createClientConfig());
+                    break;
+                case "firefox":
+                    GeckoDriverService geckoDriverService = GeckoDriverService.createDefaultService();
+                    driverService = geckoDriverService;
+                    driver = new FirefoxDriver(geckoDriverService, createFirefoxOptions(headless), createClientConfig());
+                    break;
+                case "edge":
+                    EdgeDriverService edgeDriverService = EdgeDriverService.createDefaultService();
+                    driverService = edgeDriverService;
+                    driver = new EdgeDriver(edgeDriverService, createEdgeOptions(headless), createClientConfig());
+                    break;
+                case "safari":
+                    driver = initializeSafariDriver();
+                    break;
+                default:
+                    throw unsupportedBrowser(browserName);
+            }
+            registerDriverProcess();
+        }
+
+        LOGGER.info("Web browser '" + browserName + "' launched successfully");
+        return driver;
+    }
+
+    /**
+     * Returns the browser of the last initialized WebDriver.
+     *
+     * @return the browser name in lower case, e.g. chrome
+     */
+    protected String getBrowserName() {
+        return browserName;
+    }
+
+    /**
+     * Returns whether the WebDriver sessions are created with WebDriver BiDi enabled ('network.capture' is true),
+     * which is needed for the NetworkCapture. BiDi isn't supported by Safari.
+     *
+     * @return true if BiDi is requested for the sessions, false otherwise
+     */
+    protected boolean isBiDiEnabled() {
+        return biDiEnabled;
+    }
+
+    /**
+     * Returns the counter of the WebDriver wire protocol requests of the last initialized WebDriver.
+     * Safari sessions use the default HTTP client, so their requests are not counted.
+     *
+     * @return the wire request counter
+     */
+    protected WireRequestCounter getWireRequestCounter() {
+        return wireRequestCounter;
+    }
+
+    /**
+     * Returns the local driver process (chromedriver, geckodriver or msedgedriver) of the last initialized WebDriver.
+     * The browser processes are descendants of the returned driver process.
+     *
+     * @return the driver process, or an empty Optional for Grid/Safari sessions or if the process can't be found
+     */
+    protected Optional<ProcessHandle> getDriverProcess() {
+        return driverProcess;
+    }
+
+    /**
+     * Finds the driver process of the local driver service among the JVM's descendant processes by the port it listens on,
+     * and registers its process tree in the DriverProcessRegistry, so it is killed if it is left behind.
+     */
+    private void registerDriverProcess() {
+        if (driverService == null || !driverService.isRunning()) {
+            return;
+        }
+        String portArgument = "--port=" + driverService.getUrl().getPort();
+        driverProcess = ProcessHandle.current().descendants()
+                .filter(process -> process.info().arguments().map(arguments -> Arrays.asList(arguments).contains(portArgument)).orElse(false))
+                .findFirst();
+        if (driverProcess.isPresent()) {
+            LOGGER.info("Driver process found with PID: " + driverProcess.get().pid());
+            DriverProcessRegistry.register(driverProcess.get(), driverService.getUrl(), propertiesManager.getPropertyAsInt("driver.watchdog.interval", 30));
+        } else {
+            LOGGER.warn("Driver process not found for driver service: " + driverService.getUrl());
+        }
+    }
+
+    /**
+     * Initializes a RemoteWebDriver on the Selenium Grid through the GridDispatcher, which queues the scenario until
+     * the Grid has a free slot for the browser.
+     *
+     * @param gridUrl The base URL of the Selenium Grid, e.g. http://localhost:4444
+     * @param browserName The name of the browser to request from the Grid
+     * @param headless Whether to run the browser in headless mode (true) or not (false)
+     * @return The RemoteWebDriver instance
+     */
+    private WebDriver initializeRemoteWebDriver(String gridUrl, String browserName, String headless) {
+        Capabilities capabilities;
         switch (browserName) {
             case "chrome":
-                driver = initializeChromeDriver(headless);
+                capabilities = createChromeOptions(headless);
                 break;
             case "firefox":
-                driver = initializeFirefoxDriver(headless);
+                capabilities = createFirefoxOptions(headless);
                 break;
             case "edge":
-                driver = initializeEdgeDriver(headless);
+                capabilities = createEdgeOptions(headless);
                 break;
             case "safari":
-                driver = initializeSafariDriver();
+                capabilities = new SafariOptions();
                 break;
             default:
-                LOGGER.error("Value of 'web.browser' in 'config properties' file should be: chrome, firefox, edge or safari. Unsupported browser: " + browserName);
-                throw new IllegalArgumentException("Unsupported browser: " + browserName);
+                throw unsupportedBrowser(browserName);
         }
+        int queueTimeout = propertiesManager.getPropertyAsInt("grid.queue.timeout", 300);
+        int pollInterval = propertiesManager.getPropertyAsInt("grid.poll.interval", 2);
+        LOGGER.info("Requesting '" + browserName + "' session from Selenium Grid: " + gridUrl);
+        WebDriver driver = GridDispatcher.forUrl(gridUrl).dispatch(capabilities, createClientConfig(), queueTimeout, pollInterval);
+        // A RemoteWebDriver only exposes the BiDi connection once augmented
+        return biDiEnabled ? new Augmenter().augment(driver) : driver;
+    }
 
-        LOGGER.info("Web browser '" + browserName + "' launched successfully");
-        return driver;
+    /**
+     * Creates the HTTP client configuration of the WebDriver wire protocol: the connect and read timeouts
+     * ('webdriver.http.connect.timeout' and 'webdriver.http.read.timeout' seconds) and the wire request counter.
+     * The client keeps its connection to the driver alive between commands, so a session reuses one connection.
+     *
+     * @return The ClientConfig instance
+     */
+    private ClientConfig createClientConfig() {
+        Duration connectTimeout = Duration.ofSeconds(propertiesManager.getPropertyAsInt("webdriver.http.connect.timeout", 10));
+        Duration readTimeout = Duration.ofSeconds(propertiesManager.getPropertyAsInt("webdriver.http.read.timeout", 180));
+        LOGGER.info("WebDriver HTTP client connect timeout " + connectTimeout.getSeconds() + " second(s), read timeout " + readTimeout.getSeconds() + " second(s)");
+        return ClientConfig.defaultConfig()
+                .connectionTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .withFilter(wireRequestCounter);
     }
 
     /**
-     * Initializes the ChromeDriver with ChromeOptions.
+     * Creates the ChromeOptions.
      *
      * @param headless Whether to run Chrome in headless mode (true) or not (false)
-     * @return The ChromeDriver instance
+     * @return The ChromeOptions instance
      */
-    private WebDriver initializeChromeDriver(String headless) {
+    private ChromeOptions createChromeOptions(String headless) {
         ChromeOptions options = new ChromeOptions();
+        enableBiDi(options);
         if ("true".equalsIgnoreCase(headless)) {
             options.addArguments("--headless=new");
         }
-        return new ChromeDriver(options);
+        return options;
     }
 
     /**
-     * Initializes the FirefoxDriver with FirefoxOptions.
+     * Creates the FirefoxOptions.
      *
      * @param headless Whether to run Firefox in headless mode (true) or not (false)
-     * @return The FirefoxDriver instance
+     * @return The FirefoxOptions instance
      */
-    private WebDriver initializeFirefoxDriver(String headless) {
+    private FirefoxOptions createFirefoxOptions(String headless) {
         FirefoxOptions options = new FirefoxOptions();
+        enableBiDi(options);
         if ("true".equalsIgnoreCase(headless)) {
             options.addArguments("-headless");
         }
-        return new FirefoxDriver(options);
+        return options;
     }
 
     /**
-     * Initializes the EdgeDriver with EdgeOptions.
+     * Creates the EdgeOptions.
      *
      * @param headless Whether to run Edge in headless mode (true) or not (false)
-     * @return The EdgeDriver instance
+     * @return The EdgeOptions instance
      */
-    private WebDriver initializeEdgeDriver(String headless) {
+    private EdgeOptions createEdgeOptions(String headless) {
         EdgeOptions options = new EdgeOptions();
+        enableBiDi(options);
         if ("true".equalsIgnoreCase(headless)) {
             options.addArguments("--headless=new");
         }
-        return new EdgeDriver(options);
+        return options;
+    }
+
+    /**
+     * Requests WebDriver BiDi for the session ('webSocketUrl' capability) if the network capture is enabled.
+     *
+     * @param options The browser options
+     */
+    private void enableBiDi(MutableCapabilities options) {
+        if (biDiEnabled) {
+            options.setCapability("webSocketUrl", true);
+        }
     }
 
     /**
@@ -123,4 +281,15 @@ public class WebDriverInitializer {
             throw e;
         }
     }
+
+    /**
+     * Logs and returns the exception for an unsupported browser name.
+     *
+     * @param browserName The unsupported browser name
+     * @return The IllegalArgumentException to throw
+     */
+    private IllegalArgumentException unsupportedBrowser(String browserName) {
+        LOGGER.error("Value of 'web.browser' in 'config properties' file should be: chrome, firefox, edge or safari. Unsupported browser: " + browserName);
+        return new IllegalArgumentException("Unsupported browser: " + browserName);
+    }
 }
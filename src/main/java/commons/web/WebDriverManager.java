@@ -1,8 +1,10 @@
 package commons.web;
 
+import commons.load.LoadStatistics;
 import commons.properties.PropertiesManager;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -10,7 +12,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * This class centralizes Selenium WebDriver objects at a single place to provide them in ready form, making test script development easier.
@@ -23,6 +28,19 @@ public class WebDriverManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverManager.class);
     private final int webDriverWaitTime;
     private final WebDriver driver;
+    private final String browserName;
+    private final SessionResetter sessionResetter;
+    private final Optional<ProcessHandle> driverProcess;
+    private final WireRequestCounter wireRequestCounter;
+    private final boolean observerWaitMode;
+    private final ElementObserverWait elementObserverWait;
+    private final PageSettleWait pageSettleWait;
+    private final FieldValidationReader fieldValidationReader;
+    private final PageSnapshotReader pageSnapshotReader;
+    private final Duration pageSettleQuietTime;
+    private final NetworkCapture networkCapture;
+    private final PerformanceCollector performanceCollector;
+    private Duration implicitWait = Duration.ZERO;
 
     /**
      * Constructs a new WebDriverManager with the specified properties manager.
@@ -34,6 +52,38 @@ public class WebDriverManager {
         this.webDriverWaitTime = propertiesManager.getPropertyAsInt("web.driver.wait");
         WebDriverInitializer webDriverInitializer = new WebDriverInitializer(propertiesManager);
         this.driver = webDriverInitializer.initializeWebDriver();
+        this.browserName = webDriverInitializer.getBrowserName();
+        this.driverProcess = webDriverInitializer.getDriverProcess();
+        this.wireRequestCounter = webDriverInitializer.getWireRequestCounter();
+        this.sessionResetter = new SessionResetter(driver, propertiesManager.getPropertyAsBoolean("windows.maximize"));
+        String waitMode = System.getProperty("web.driver.wait.mode", propertiesManager.getProperty("web.driver.wait.mode", "polling"));
+        this.observerWaitMode = waitMode.equalsIgnoreCase("observer");
+        AsyncScriptRunner asyncScriptRunner = new AsyncScriptRunner(driver);
+        this.elementObserverWait = new ElementObserverWait(asyncScriptRunner);
+        this.pageSettleWait = new PageSettleWait(asyncScriptRunner);
+        this.fieldValidationReader = new FieldValidationReader(driver);
+        this.pageSnapshotReader = new PageSnapshotReader(driver);
+        this.pageSettleQuietTime = Duration.ofMillis(propertiesManager.getPropertyAsInt("page.settle.quiet.millis", 500));
+        this.performanceCollector = new PerformanceCollector(asyncScriptRunner, propertiesManager);
+        this.networkCapture = webDriverInitializer.isBiDiEnabled() ? createNetworkCapture(propertiesManager) : null;
+        LOGGER.info("WebDriver wait mode: " + (observerWaitMode ? "observer" : "polling"));
+    }
+
+    /**
+     * Subscribes the NetworkCapture to the BiDi events of the session. If the browser or Grid doesn't support BiDi,
+     * the failure is logged and the tests run without network capture.
+     *
+     * @param propertiesManager the properties manager with the network capture configuration
+     * @return the NetworkCapture, or null if it can't be subscribed
+     */
+    private NetworkCapture createNetworkCapture(PropertiesManager propertiesManager) {
+        try {
+            return new NetworkCapture(driver, propertiesManager.getPropertyAsInt("network.capture.slow.request.millis", 1000),
+                    propertiesManager.getPropertyAsInt("network.capture.queue.capacity", 10000));
+        } catch (Throwable e) {
+            LOGGER.warn("Network capture disabled, WebDriver BiDi not available for the session: " + e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -46,6 +96,116 @@ public class WebDriverManager {
         return driver;
     }
 
+    /**
+     * Returns the browser of the WebDriver session.
+     *
+     * @return the browser name in lower case, e.g. chrome
+     */
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    /**
+     * Loads the web page of the given URL, then collects its performance metrics if 'performance.collect' is true.
+     * The load time is recorded as a page transaction in the LoadStatistics of a load run.
+     * A failure to collect the metrics is logged and doesn't fail the navigation.
+     *
+     * @param url the URL of the web page
+     */
+    public void navigateTo(String url) {
+        long startNanos = System.nanoTime();
+        try {
+            driver.get(url);
+            LoadStatistics.record("page: " + url, Duration.ofNanos(System.nanoTime() - startNanos).toMillis(), false);
+            LOGGER.info("Navigated to URL: " + url);
+        } catch (Throwable e) {
+            LoadStatistics.record("page: " + url, Duration.ofNanos(System.nanoTime() - startNanos).toMillis(), true);
+            LOGGER.error("Failed to navigate to URL: " + url, e);
+            throw e;
+        }
+        if (performanceCollector.isCollectAfterNavigation()) {
+            try {
+                performanceCollector.collect();
+            } catch (WebDriverException e) {
+                LOGGER.warn("Failed to collect page performance of URL: " + url + ". Cause: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+        }
+    }
+
+    /**
+     * Returns the PerformanceCollector of the WebDriver session, which reads the performance metrics of the current page
+     * and checks them against the performance budgets.
+     *
+     * @return the PerformanceCollector
+     */
+    public PerformanceCollector getPerformanceCollector() {
+        return performanceCollector;
+    }
+
+    /**
+     * Returns the local driver process (chromedriver, geckodriver or msedgedriver) of the WebDriver session.
+     * The browser processes are descendants of the driver process.
+     *
+     * @return the driver process, or an empty Optional for Grid/Safari sessions or if the process can't be found
+     */
+    public Optional<ProcessHandle> getDriverProcess() {
+        return driverProcess;
+    }
+
+    /**
+     * Returns the NetworkCapture of the WebDriver session, which records its network requests and console errors.
+     *
+     * @return the NetworkCapture, or an empty Optional if 'network.capture' is disabled or BiDi isn't available
+     */
+    public Optional<NetworkCapture> getNetworkCapture() {
+        return Optional.ofNullable(networkCapture);
+    }
+
+    /**
+     * Returns the counter of the WebDriver wire protocol requests (HTTP round-trips to the driver) of the session.
+     *
+     * @return the wire request counter
+     */
+    public WireRequestCounter getWireRequestCounter() {
+        return wireRequestCounter;
+    }
+
+    /**
+     * Resets the WebDriver session to a clean state (windows, cookies, storage and viewport), so it can be reused.
+     *
+     * @return true if the reset was clean and the session can be reused, false otherwise
+     */
+    public boolean resetSession() {
+        return sessionResetter.reset();
+    }
+
+    /**
+     * Closes the web browser window(s) and ends the WebDriver session.
+     */
+    public void quit() {
+        try {
+            if (networkCapture != null) {
+                networkCapture.close();
+            }
+            driver.quit();
+            LOGGER.info("Closed web browser window(s) and ended the WebDriver session");
+        } finally {
+            driverProcess.ifPresent(DriverProcessRegistry::release);
+        }
+    }
+
+    /**
+     * Sets the implicit wait timeout of the WebDriver session. The WebDriverManager keeps track of it, so it can turn the
+     * implicit wait off for fast presence checks.
+     *
+     * @param implicitWait the implicit wait timeout
+     */
+    public void setImplicitWait(Duration implicitWait) {
+        driver.manage().timeouts().implicitlyWait(implicitWait);
+        this.implicitWait = implicitWait;
+        LOGGER.info("Implicit wait set to " + implicitWait.toMillis() + " ms");
+    }
+
     /**
      * Returns an initialized WebDriverWait object with the specified wait time.
      *
@@ -103,7 +263,7 @@ public class WebDriverManager {
      */
     public WebElement waitUntilPresenceThenGetWebElement(By locator, int... waitTimeInSeconds) {
         try{
-            WebElement webElement = getWebDriverWait(waitTimeInSeconds).until(ExpectedConditions.presenceOfElementLocated(locator));
+            WebElement webElement = waitUntil(locator, ElementObserverWait.Condition.PRESENCE, ExpectedConditions.presenceOfElementLocated(locator), waitTimeInSeconds);
             LOGGER.info("Waited for presence then got WebElement with locator: " + locator);
             return webElement;
         } catch (Throwable e) {
@@ -121,7 +281,7 @@ public class WebDriverManager {
      */
     public List<WebElement> waitUntilPresenceThenGetWebElements(By locator, int... waitTimeInSeconds) {
         try{
-            List<WebElement> webElements = getWebDriverWait(waitTimeInSeconds).until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+            List<WebElement> webElements = waitUntil(locator, ElementObserverWait.Condition.PRESENCE_OF_ALL, ExpectedConditions.presenceOfAllElementsLocatedBy(locator), waitTimeInSeconds);
             LOGGER.info("Waited for presence then got list of WebElement with locator: " + locator);
             return webElements;
         } catch (Throwable e) {
@@ -140,7 +300,7 @@ public class WebDriverManager {
     public WebElement waitUntilVisibilityThenGetWebElement(By locator, int... waitTimeInSeconds) {
         WebElement webElement;
         try{
-            webElement = getWebDriverWait(waitTimeInSeconds).until(ExpectedConditions.visibilityOfElementLocated(locator));
+            webElement = waitUntil(locator, ElementObserverWait.Condition.VISIBILITY, ExpectedConditions.visibilityOfElementLocated(locator), waitTimeInSeconds);
             LOGGER.info("Waited for visibility then got WebElement with locator: " + locator);
             return webElement;
         } catch (Throwable e) {
@@ -158,7 +318,7 @@ public class WebDriverManager {
      */
     public List<WebElement> waitUntilVisibilityThenGetWebElements(By locator, int... waitTimeInSeconds) {
         try{
-            List<WebElement> webElements = getWebDriverWait(waitTimeInSeconds).until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+            List<WebElement> webElements = waitUntil(locator, ElementObserverWait.Condition.VISIBILITY_OF_ALL, ExpectedConditions.visibilityOfAllElementsLocatedBy(locator), waitTimeInSeconds);
             LOGGER.info("Waited for visibility then got list of WebElement with locator: " + locator);
             return webElements;
         } catch (Throwable e) {
@@ -177,7 +337,7 @@ public class WebDriverManager {
     public WebElement waitUntilVisibilityAndEnabledThenGetWebElement(By locator, int... waitTimeInSeconds) {
         WebElement webElement;
         try{
-            webElement = getWebDriverWait(waitTimeInSeconds).until(ExpectedConditions.elementToBeClickable(locator));
+            webElement = waitUntil(locator, ElementObserverWait.Condition.CLICKABLE, ExpectedConditions.elementToBeClickable(locator), waitTimeInSeconds);
             LOGGER.info("Waited for visibility and enabled then got WebElement with locator: " + locator);
             return webElement;
         } catch (Throwable e) {
@@ -186,6 +346,151 @@ public class WebDriverManager {
         }
     }
 
+    /**
+     * Waits until the condition holds for the element(s) located by the given By object. In observer wait mode, the
+     * condition is awaited inside the browser with the ElementObserverWait; if the locator isn't supported or the script
+     * fails (e.g. the page was unloaded during the wait), the WebDriverWait polls the expected condition for the remaining time.
+     *
+     * @param locator the By object used to locate the element(s)
+     * @param condition the condition to wait for in observer wait mode
+     * @param expectedCondition the equivalent condition to poll
+     * @param waitTimeInSeconds The wait time in seconds. If not specified, the default value will be used
+     * @return the value returned by the condition
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T waitUntil(By locator, ElementObserverWait.Condition condition, ExpectedCondition<T> expectedCondition, int... waitTimeInSeconds) {
+        if (!observerWaitMode || !ElementObserverWait.supports(locator)) {
+            return getWebDriverWait(waitTimeInSeconds).until(expectedCondition);
+        }
+        Duration waitTime = Duration.ofSeconds(waitTimeInSeconds.length > 0 ? waitTimeInSeconds[0] : webDriverWaitTime);
+        long startNanos = System.nanoTime();
+        try {
+            return (T) elementObserverWait.until(locator, condition, waitTime);
+        } catch (JavascriptException | ScriptTimeoutException e) {
+            Duration remainingTime = waitTime.minusNanos(System.nanoTime() - startNanos);
+            LOGGER.warn("Element observer wait failed for locator: " + locator + ", polling for the remaining " + Math.max(0, remainingTime.toMillis()) + " ms. Cause: " + e.getMessage());
+            return new WebDriverWait(driver, remainingTime.isNegative() ? Duration.ZERO : remainingTime).until(expectedCondition);
+        }
+    }
+
+    /**
+     * Waits until the page has settled: the document is loaded, the URL, DOM and loaded resources stopped changing, no
+     * fetch/XMLHttpRequest is pending and Angular (if used) is stable, for the configured quiet time ('page.settle.quiet.millis').
+     * Use it instead of fixed sleeps after actions that may or may not trigger a navigation or a request.
+     *
+     * @param waitTimeInSeconds The wait time in seconds. If not specified, the default value will be used
+     */
+    public void waitUntilPageSettled(int... waitTimeInSeconds) {
+        int waitTime = waitTimeInSeconds.length > 0 ? waitTimeInSeconds[0] : webDriverWaitTime;
+        try{
+            long settleTime = pageSettleWait.until(pageSettleQuietTime, Duration.ofSeconds(waitTime));
+            LOGGER.info("Waited " + settleTime + " ms for the page to settle");
+        } catch (Throwable e) {
+            LOGGER.error("Failed to wait for the page to settle", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the native (HTML5) validation state of the form fields located by the given By objects, read in a single
+     * script call. The browser validation bubble is not part of the DOM; its message is the validation message of the
+     * first invalid field of the submitted form.
+     *
+     * @param locators the By objects used to locate the form fields
+     * @return the validation state by locator, in the given order
+     */
+    public Map<By, FieldValidation> getFieldValidations(By... locators) {
+        try{
+            Map<By, FieldValidation> fieldValidations = fieldValidationReader.read(Arrays.asList(locators));
+            LOGGER.info("Read field validations: " + fieldValidations);
+            return fieldValidations;
+        } catch (Throwable e) {
+            LOGGER.error("Failed to read field validations with locators: " + Arrays.toString(locators), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the state (value, text, visibility and attributes) of the elements located by the given By
+     * objects, read in a single script call, so several checks can be made without further calls to the browser.
+     * The snapshot doesn't wait for the elements; wait for the page (e.g. waitUntilPageSettled) before taking it.
+     *
+     * @param locators the By objects used to locate the elements (first matching element each), by element name
+     * @return the immutable snapshot of the elements
+     */
+    public PageSnapshot getPageSnapshot(Map<String, By> locators) {
+        try{
+            PageSnapshot pageSnapshot = pageSnapshotReader.read(locators);
+            LOGGER.info("Took page snapshot of elements: " + locators.keySet());
+            return pageSnapshot;
+        } catch (Throwable e) {
+            LOGGER.error("Failed to take page snapshot with locators: " + locators, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the element located by the given By object is invisible (absent from the DOM or not displayed).
+     * Waits until the page has settled, then returns as soon as the element is invisible, polling if it is still
+     * disappearing. Returns false, without throwing, if the element is still displayed after the wait time.
+     *
+     * @param locator the By object used to locate the element
+     * @param waitTimeInSeconds The wait time in seconds. If not specified, the default value will be used
+     * @return true if the element is invisible, false otherwise
+     */
+    public boolean isInvisible(By locator, int... waitTimeInSeconds) {
+        Duration waitTime = Duration.ofSeconds(waitTimeInSeconds.length > 0 ? waitTimeInSeconds[0] : webDriverWaitTime);
+        long startNanos = System.nanoTime();
+        waitUntilPageSettledQuietly(waitTime);
+        Duration remainingTime = waitTime.minusNanos(System.nanoTime() - startNanos);
+        try {
+            new WebDriverWait(driver, remainingTime.isNegative() ? Duration.ZERO : remainingTime, Duration.ofMillis(100))
+                    .until(webDriver -> !isDisplayedNow(locator));
+            LOGGER.info("WebElement invisible with locator: " + locator);
+            return true;
+        } catch (TimeoutException e) {
+            LOGGER.info("WebElement still displayed after " + waitTime.getSeconds() + " second(s) with locator: " + locator);
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the element located by the given By object is displayed right now: the element is looked up with
+     * the implicit wait turned off, and a missing or stale element counts as not displayed.
+     *
+     * @param locator the By object used to locate the element
+     * @return true if the first matching element is displayed, false otherwise
+     */
+    private boolean isDisplayedNow(By locator) {
+        boolean implicitWaitEnabled = !implicitWait.isZero();
+        if (implicitWaitEnabled) {
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        }
+        try {
+            List<WebElement> webElements = driver.findElements(locator);
+            return !webElements.isEmpty() && webElements.get(0).isDisplayed();
+        } catch (StaleElementReferenceException e) {
+            return false;
+        } finally {
+            if (implicitWaitEnabled) {
+                driver.manage().timeouts().implicitlyWait(implicitWait);
+            }
+        }
+    }
+
+    /**
+     * Waits until the page has settled, but carries on (with a log) if it doesn't settle within the wait time.
+     *
+     * @param waitTime the maximum time to wait
+     */
+    private void waitUntilPageSettledQuietly(Duration waitTime) {
+        try {
+            pageSettleWait.until(pageSettleQuietTime, waitTime);
+        } catch (TimeoutException | JavascriptException e) {
+            LOGGER.warn("Page not settled, checking WebElement anyway. Cause: " + e.getMessage().lines().findFirst().orElse(""));
+        }
+    }
+
     /**
      * Returns a Select WebElement located by the given By object.
      *
@@ -0,0 +1,300 @@
+package commons.web;
+
+import commons.properties.PropertiesManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The WebDriverSessionPool class keeps one idle WebDriver session per thread, so the next scenario executed on the same
+ * thread can reuse the running browser instead of quitting and relaunching it. When scenarios run on a new thread each
+ * (virtual thread execution), the idle sessions are shared between all threads instead.
+ *
+ * A session is only put back into the pool when its reset was clean; otherwise it is quit. Sessions still idle when the
+ * JVM exits are quit by a shutdown hook.
+ *
+ * If 'browser.capacity' is set to a positive value, at most that many sessions are in use by scenarios at once; further
+ * scenarios wait for a session to be released. Idle sessions count against the capacity too: when a new session would
+ * exceed it, the oldest idle session (of any thread) is quit first. 'browser.capacity.<browser>' (e.g.
+ * 'browser.capacity.firefox') limits the sessions of one browser in use at once, for runs that mix browsers. An idle
+ * session is only reused by a scenario of the same browser.
+ */
+public final class WebDriverSessionPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverSessionPool.class);
+    private static final ThreadLocal<WebDriverManager> IDLE_SESSION = new ThreadLocal<>();
+    private static final Set<WebDriverManager> OPEN_SESSIONS = ConcurrentHashMap.newKeySet();
+    // Every idle session, newest first; a session is taken (reused or quit) by whoever removes it first
+    private static final Deque<WebDriverManager> IDLE_SESSIONS = new ConcurrentLinkedDeque<>();
+    private static final AtomicInteger IN_USE_SESSIONS = new AtomicInteger();
+    private static final AtomicInteger WAITING_SCENARIOS = new AtomicInteger();
+    private static volatile boolean idleSessionsShared;
+    private static volatile Semaphore browserCapacity;
+    private static volatile int browserCapacityLimit;
+    private static volatile boolean browserCapacityConfigured;
+    // Capacity per browser, empty if the browser has no own limit
+    private static final Map<String, Optional<Semaphore>> BROWSER_TYPE_CAPACITIES = new ConcurrentHashMap<>();
+
+    /**
+     * The utilization of the pool at a point in time.
+     *
+     * @param openSessions the number of open sessions, in use or idle
+     * @param inUseSessions the number of sessions in use by scenarios
+     * @param idleSessions the number of idle sessions, waiting to be reused
+     * @param browserCapacity the maximum number of sessions in use at once, 0 if unlimited
+     * @param waitingScenarios the number of scenarios waiting for a free browser slot
+     */
+    public record Statistics(int openSessions, int inUseSessions, int idleSessions, int browserCapacity, int waitingScenarios) {
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WebDriverSessionPool::quitAll, "webdriver-session-pool-shutdown"));
+    }
+
+    // Prevent instantiation of this class
+    private WebDriverSessionPool() {}
+
+    /**
+     * Sets whether the idle sessions are shared between all threads, for executions that run each scenario on a new
+     * thread. Otherwise an idle session is only reused by the thread that released it.
+     *
+     * @param shared true to share the idle sessions between threads, false to keep them per thread
+     */
+    public static void setIdleSessionsShared(boolean shared) {
+        idleSessionsShared = shared;
+        LOGGER.info("Idle WebDriver sessions " + (shared ? "shared between threads" : "kept per thread"));
+    }
+
+    /**
+     * Returns an idle session of the browser if there is one, otherwise launches a new WebDriver session. If the browser
+     * capacity or the capacity of the browser is reached, waits until a session is released.
+     *
+     * @param propertiesManager the properties manager to use for configuring a new WebDriverManager
+     * @return the WebDriverManager of the reused or new session
+     */
+    public static WebDriverManager acquire(PropertiesManager propertiesManager) {
+        String browserName = BrowserSelection.getBrowserName(propertiesManager);
+        // The slot of the browser is taken first, so a scenario waiting for it doesn't block the other browsers
+        acquireBrowserTypePermit(browserName, propertiesManager);
+        try {
+            acquireBrowserPermit(propertiesManager);
+        } catch (RuntimeException | Error e) {
+            releaseBrowserTypePermit(browserName);
+            throw e;
+        }
+        try {
+            WebDriverManager webDriverManager = takeIdleSession(browserName);
+            if (webDriverManager != null) {
+                LOGGER.info("Reusing idle WebDriver session in thread: " + Thread.currentThread().getName());
+            } else {
+                webDriverManager = new WebDriverManager(propertiesManager);
+                OPEN_SESSIONS.add(webDriverManager);
+            }
+            IN_USE_SESSIONS.incrementAndGet();
+            return webDriverManager;
+        } catch (RuntimeException | Error e) {
+            releaseBrowserPermit();
+            releaseBrowserTypePermit(browserName);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the session after a scenario. If reuse is requested, the session is reset and kept as the idle session of
+     * the current thread when the reset is clean; otherwise the session is quit.
+     *
+     * @param webDriverManager the WebDriverManager of the session to release
+     * @param reuse whether to try to reuse the session (true) or always quit it (false)
+     */
+    public static void release(WebDriverManager webDriverManager, boolean reuse) {
+        IN_USE_SESSIONS.decrementAndGet();
+        try {
+            if (reuse && webDriverManager.resetSession()) {
+                IDLE_SESSION.set(webDriverManager);
+                IDLE_SESSIONS.push(webDriverManager);
+                LOGGER.info("WebDriver session kept for reuse by " + (idleSessionsShared ? "any thread" : "thread: " + Thread.currentThread().getName()));
+                return;
+            }
+            quit(webDriverManager);
+        } finally {
+            releaseBrowserPermit();
+            releaseBrowserTypePermit(webDriverManager.getBrowserName());
+        }
+    }
+
+    /**
+     * Quits the idle session released by the current thread, if it wasn't reused yet, so the next scenario gets a new
+     * session.
+     */
+    public static void discardIdleSession() {
+        WebDriverManager webDriverManager = IDLE_SESSION.get();
+        if (webDriverManager != null) {
+            IDLE_SESSION.remove();
+            if (!IDLE_SESSIONS.remove(webDriverManager)) {
+                return;
+            }
+            LOGGER.info("Discarding idle WebDriver session of thread: " + Thread.currentThread().getName());
+            quit(webDriverManager);
+        }
+    }
+
+    /**
+     * Returns the current utilization of the pool.
+     *
+     * @return the statistics of the pool
+     */
+    public static Statistics getStatistics() {
+        int openSessions = OPEN_SESSIONS.size();
+        int inUseSessions = IN_USE_SESSIONS.get();
+        return new Statistics(openSessions, inUseSessions, Math.max(0, openSessions - inUseSessions), browserCapacityLimit, WAITING_SCENARIOS.get());
+    }
+
+    /**
+     * Takes an idle session of the browser: a shared one if the idle sessions are shared, otherwise the one of the current
+     * thread. An idle session of the current thread with another browser is quit. If no session can be reused and the
+     * browser capacity is reached by the open sessions, the oldest idle session (of any thread) is quit to make room,
+     * so idle sessions never take the open sessions beyond the capacity.
+     *
+     * @param browserName the browser of the session
+     * @return the idle session, or null if there is none
+     */
+    private static WebDriverManager takeIdleSession(String browserName) {
+        WebDriverManager webDriverManager = IDLE_SESSION.get();
+        IDLE_SESSION.remove();
+        if (!idleSessionsShared) {
+            // The idle session of the thread may have been quit to make room for another thread's session
+            if (webDriverManager != null && IDLE_SESSIONS.remove(webDriverManager)) {
+                if (webDriverManager.getBrowserName().equals(browserName)) {
+                    return webDriverManager;
+                }
+                LOGGER.info("Quitting idle '" + webDriverManager.getBrowserName() + "' session, the scenario needs '" + browserName + "'");
+                quit(webDriverManager);
+            }
+        } else {
+            for (Iterator<WebDriverManager> iterator = IDLE_SESSIONS.iterator(); iterator.hasNext(); ) {
+                WebDriverManager idleSession = iterator.next();
+                if (idleSession.getBrowserName().equals(browserName) && IDLE_SESSIONS.remove(idleSession)) {
+                    return idleSession;
+                }
+            }
+        }
+        if (browserCapacityLimit > 0 && OPEN_SESSIONS.size() >= browserCapacityLimit) {
+            WebDriverManager oldestIdleSession = IDLE_SESSIONS.pollLast();
+            if (oldestIdleSession != null) {
+                LOGGER.info("Quitting idle '" + oldestIdleSession.getBrowserName() + "' session to make room for a '" + browserName + "' session");
+                quit(oldestIdleSession);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for a free browser slot if 'browser.capacity' (system property or config properties file) is positive.
+     * The capacity is read once, by the first scenario.
+     *
+     * @param propertiesManager the properties manager with the 'browser.capacity' property
+     */
+    private static void acquireBrowserPermit(PropertiesManager propertiesManager) {
+        if (!browserCapacityConfigured) {
+            synchronized (WebDriverSessionPool.class) {
+                if (!browserCapacityConfigured) {
+                    int capacity = Integer.parseInt(System.getProperty("browser.capacity", propertiesManager.getProperty("browser.capacity", "0")));
+                    browserCapacity = capacity > 0 ? new Semaphore(capacity, true) : null;
+                    browserCapacityLimit = Math.max(0, capacity);
+                    browserCapacityConfigured = true;
+                    LOGGER.info("Browser capacity: " + (capacity > 0 ? capacity + " session(s) in use at once" : "unlimited"));
+                }
+            }
+        }
+        Semaphore capacity = browserCapacity;
+        if (capacity == null) {
+            return;
+        }
+        if (!capacity.tryAcquire()) {
+            LOGGER.info("Browser capacity reached, waiting for a WebDriver session to be released");
+            WAITING_SCENARIOS.incrementAndGet();
+            try {
+                capacity.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a free browser slot", e);
+            } finally {
+                WAITING_SCENARIOS.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Waits for a free slot of the browser if 'browser.capacity.<browser>' (system property or config properties file)
+     * is positive. The capacity of a browser is read once, by the first scenario of the browser.
+     *
+     * @param browserName the browser of the session
+     * @param propertiesManager the properties manager with the 'browser.capacity.<browser>' property
+     */
+    private static void acquireBrowserTypePermit(String browserName, PropertiesManager propertiesManager) {
+        Optional<Semaphore> browserTypeCapacity = BROWSER_TYPE_CAPACITIES.computeIfAbsent(browserName, key -> {
+            String capacityKey = "browser.capacity." + key;
+            int capacity = Integer.parseInt(System.getProperty(capacityKey, propertiesManager.getProperty(capacityKey, "0")));
+            if (capacity > 0) {
+                LOGGER.info("Browser capacity of '" + key + "': " + capacity + " session(s) in use at once");
+            }
+            return capacity > 0 ? Optional.of(new Semaphore(capacity, true)) : Optional.empty();
+        });
+        if (browserTypeCapacity.isEmpty() || browserTypeCapacity.get().tryAcquire()) {
+            return;
+        }
+        LOGGER.info("Browser capacity of '" + browserName + "' reached, waiting for a '" + browserName + "' session to be released");
+        WAITING_SCENARIOS.incrementAndGet();
+        try {
+            browserTypeCapacity.get().acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free '" + browserName + "' slot", e);
+        } finally {
+            WAITING_SCENARIOS.decrementAndGet();
+        }
+    }
+
+    private static void releaseBrowserTypePermit(String browserName) {
+        BROWSER_TYPE_CAPACITIES.getOrDefault(browserName, Optional.empty()).ifPresent(Semaphore::release);
+    }
+
+    private static void releaseBrowserPermit() {
+        Semaphore capacity = browserCapacity;
+        if (capacity != null) {
+            capacity.release();
+        }
+    }
+
+    /**
+     * Quits the session and removes it from the pool.
+     *
+     * @param webDriverManager the WebDriverManager of the session to quit
+     */
+    private static void quit(WebDriverManager webDriverManager) {
+        OPEN_SESSIONS.remove(webDriverManager);
+        try {
+            webDriverManager.quit();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to quit WebDriver session", e);
+        }
+    }
+
+    /**
+     * Quits every session still open, called when the JVM exits.
+     */
+    private static void quitAll() {
+        IDLE_SESSIONS.clear();
+        for (WebDriverManager webDriverManager : OPEN_SESSIONS) {
+            quit(webDriverManager);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package commons.web;
+
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The WireRequestCounter class is an HTTP client filter counting the WebDriver wire protocol requests of a session and
+ * their round-trip time, in total and per command (HTTP method and path, with session and element ids replaced by
+ * '{id}'). It measures how many round-trips a change of the WebDriverManager methods actually saves.
+ *
+ * The counts are cumulative for the session; a scenario takes a snapshot at its start and reads the difference at its end.
+ */
+public final class WireRequestCounter implements Filter {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(session|element|shadow)/[^/]+");
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder roundTripNanos = new LongAdder();
+    private final Map<String, LongAdder> requestCountByCommand = new ConcurrentHashMap<>();
+
+    /**
+     * The wire requests counted between two points in time.
+     *
+     * @param requestCount the number of requests
+     * @param roundTripMillis the total round-trip time of the requests in milliseconds
+     * @param requestCountByCommand the number of requests per command
+     */
+    public record Snapshot(long requestCount, long roundTripMillis, Map<String, Long> requestCountByCommand) {
+
+        /**
+         * Returns the requests counted since the given earlier snapshot.
+         *
+         * @param earlier the earlier snapshot of the same counter
+         * @return the difference between this snapshot and the earlier one
+         */
+        public Snapshot since(Snapshot earlier) {
+            Map<String, Long> commandCounts = requestCountByCommand.entrySet().stream()
+                    .filter(entry -> entry.getValue() > earlier.requestCountByCommand().getOrDefault(entry.getKey(), 0L))
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue() - earlier.requestCountByCommand().getOrDefault(entry.getKey(), 0L)));
+            return new Snapshot(requestCount - earlier.requestCount(), roundTripMillis - earlier.roundTripMillis(), commandCounts);
+        }
+
+        @Override
+        public String toString() {
+            String commands = requestCountByCommand.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .collect(Collectors.joining(", "));
+            return requestCount + " wire request(s), " + roundTripMillis + " ms round-trip [" + commands + "]";
+        }
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            long startNanos = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                roundTripNanos.add(System.nanoTime() - startNanos);
+                requestCount.increment();
+                String command = request.getMethod() + " " + ID_SEGMENT.matcher(request.getUri()).replaceAll("/$1/{id}");
+                requestCountByCommand.computeIfAbsent(command, key -> new LongAdder()).increment();
+            }
+        };
+    }
+
+    /**
+     * Returns the requests counted since the session was created.
+     *
+     * @return the snapshot of the counts
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> commandCounts = requestCountByCommand.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+        return new Snapshot(requestCount.sum(), roundTripNanos.sum() / 1_000_000, commandCounts);
+    }
+}
@@ -0,0 +1,56 @@
+package org.justtestit.buggy.api;
+
+/**
+ * This class holds the API state of a scenario: the user registered and the access token obtained through the API, so
+ * the steps of every step class of the scenario can use them.
+ */
+public class ApiSession {
+
+    private ApiUser user;
+    private String accessToken;
+
+    /**
+     * Returns the user registered through the API in this scenario.
+     *
+     * @return the user
+     * @throws IllegalStateException if no user has been registered through the API in this scenario
+     */
+    public ApiUser getUser() {
+        if (user == null) {
+            throw new IllegalStateException("No user registered through the API in this scenario");
+        }
+        return user;
+    }
+
+    /**
+     * Sets the user registered through the API in this scenario.
+     *
+     * @param user the user
+     */
+    public void setUser(ApiUser user) {
+        this.user = user;
+    }
+
+    /**
+     * Returns the access token obtained through the API in this scenario.
+     *
+     * @return the access token
+     * @throws IllegalStateException if no user has logged in through the API in this scenario
+     */
+    public String getAccessToken() {
+        if (accessToken == null) {
+            throw new IllegalStateException("No user logged in through the API in this scenario");
+        }
+        return accessToken;
+    }
+
+    /**
+     * Sets the access token obtained through the API in this scenario.
+     *
+     * @param accessToken the access token
+     */
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+}
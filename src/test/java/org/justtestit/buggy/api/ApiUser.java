@@ -0,0 +1,12 @@
+package org.justtestit.buggy.api;
+
+/**
+ * A Buggy user account, as registered through the API.
+ *
+ * @param username the login name of the user
+ * @param firstName the first name of the user
+ * @param lastName the last name of the user
+ * @param password the password of the user
+ */
+public record ApiUser(String username, String firstName, String lastName, String password) {
+}
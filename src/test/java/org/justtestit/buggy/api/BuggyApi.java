@@ -0,0 +1,96 @@
+package org.justtestit.buggy.api;
+
+import commons.api.ApiClient;
+import commons.api.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * This class represents the Buggy backend API, used to set up scenario preconditions (registered user, logged-in user)
+ * without going through the user interface.
+ * It contains the paths of the API resources and methods for the requests the scenarios need.
+ */
+public class BuggyApi {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuggyApi.class);
+
+    //********** API PATHS **********
+    private static final String USERS_PATH = "users";
+    private static final String TOKEN_PATH = "oauth/token";
+    private static final String CURRENT_USER_PATH = "users/current";
+
+    private final ApiClient apiClient;
+
+    /**
+     * Creates a new instance of BuggyApi with a specified ApiClient object.
+     *
+     * @param apiClient the ApiClient object to be used for the API requests
+     */
+    public BuggyApi(ApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    //********** API REQUEST METHODS **********
+
+    /**
+     * Registers the given user.
+     *
+     * @param user the user to be registered
+     * @throws IllegalStateException if the registration is rejected, e.g. the username already exists
+     */
+    public void registerUser(ApiUser user) {
+        ApiResponse response = apiClient.postJson(USERS_PATH, Map.of(
+                "username", user.username(),
+                "firstName", user.firstName(),
+                "lastName", user.lastName(),
+                "password", user.password(),
+                "confirmPassword", user.password()), null);
+        checkSuccessful(response, "Registration of user '" + user.username() + "'");
+        LOGGER.info("User '" + user.username() + "' registered through the API");
+    }
+
+    /**
+     * Logs in with the given username and password.
+     *
+     * @param username the username to be used for login
+     * @param password the password to be used for login
+     * @return the access token of the user
+     * @throws IllegalStateException if the login is rejected
+     */
+    public String login(String username, String password) {
+        ApiResponse response = apiClient.postForm(TOKEN_PATH, Map.of(
+                "grant_type", "password",
+                "username", username,
+                "password", password));
+        checkSuccessful(response, "Login of user '" + username + "'");
+        Object accessToken = response.getBodyAsMap().get("access_token");
+        if (!(accessToken instanceof String token) || token.isEmpty()) {
+            throw new IllegalStateException("Login of user '" + username + "' returned no access token: " + response.body());
+        }
+        LOGGER.info("User '" + username + "' logged in through the API");
+        return token;
+    }
+
+    /**
+     * Returns the profile of the user of the given access token.
+     *
+     * @param accessToken the access token of the user
+     * @return the profile of the user, e.g. 'firstName' and 'lastName'
+     * @throws IllegalStateException if the request is rejected
+     */
+    public Map<String, Object> getCurrentUser(String accessToken) {
+        ApiResponse response = apiClient.get(CURRENT_USER_PATH, accessToken);
+        checkSuccessful(response, "Current user request");
+        return response.getBodyAsMap();
+    }
+
+    private void checkSuccessful(ApiResponse response, String request) {
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException(request + " failed with status " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+}
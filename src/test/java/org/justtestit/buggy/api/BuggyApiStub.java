@@ -0,0 +1,147 @@
+package org.justtestit.buggy.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * This class is a local, in-memory stub of the Buggy backend API, so the API layer and the API steps can be run offline
+ * ('api.stub=true'). It implements the requests of BuggyApi: user registration, login and current user.
+ *
+ * One stub is started on a free port of the loopback interface for the whole JVM, on first use, and stopped at shutdown.
+ */
+public final class BuggyApiStub {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuggyApiStub.class);
+    private static final Json JSON = new Json();
+
+    private static BuggyApiStub sharedStub;
+
+    private final HttpServer server;
+    private final Map<String, ApiUser> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, String> usernamesByToken = new ConcurrentHashMap<>();
+
+    private BuggyApiStub() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start the Buggy API stub", e);
+        }
+        server.createContext("/users", this::handleUsers);
+        server.createContext("/oauth/token", this::handleToken);
+        server.start();
+        LOGGER.info("Buggy API stub started at: " + getBaseUrl());
+    }
+
+    /**
+     * Returns the stub shared by the JVM, starting it on first use.
+     *
+     * @return the running stub
+     */
+    public static synchronized BuggyApiStub getShared() {
+        if (sharedStub == null) {
+            BuggyApiStub stub = new BuggyApiStub();
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::stop, "buggy-api-stub-shutdown"));
+            sharedStub = stub;
+        }
+        return sharedStub;
+    }
+
+    /**
+     * Returns the base URL of the stub, to be used as the API base URL.
+     *
+     * @return the base URL, e.g. 'http://127.0.0.1:54321/'
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Stops the stub.
+     */
+    public void stop() {
+        server.stop(0);
+        LOGGER.info("Buggy API stub stopped");
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if ("POST".equals(exchange.getRequestMethod()) && path.equals("/users")) {
+            Map<String, Object> body = JSON.toType(readBody(exchange), Json.MAP_TYPE);
+            String username = String.valueOf(body.get("username"));
+            if (!String.valueOf(body.get("password")).equals(String.valueOf(body.get("confirmPassword")))) {
+                sendJson(exchange, 400, Map.of("message", "Passwords do not match"));
+            } else if (usersByUsername.putIfAbsent(username, new ApiUser(username, String.valueOf(body.get("firstName")),
+                    String.valueOf(body.get("lastName")), String.valueOf(body.get("password")))) != null) {
+                sendJson(exchange, 400, Map.of("message", "UsernameExistsException: User already exists"));
+            } else {
+                sendJson(exchange, 201, Map.of());
+            }
+        } else if ("GET".equals(exchange.getRequestMethod()) && path.equals("/users/current")) {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            String username = authorization == null || !authorization.startsWith("Bearer ") ? null : usernamesByToken.get(authorization.substring(7));
+            if (username == null) {
+                sendJson(exchange, 401, Map.of("message", "Unauthorized"));
+            } else {
+                ApiUser user = usersByUsername.get(username);
+                sendJson(exchange, 200, Map.of("username", user.username(), "firstName", user.firstName(), "lastName", user.lastName()));
+            }
+        } else {
+            sendJson(exchange, 404, Map.of("message", "Not found"));
+        }
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendJson(exchange, 404, Map.of("message", "Not found"));
+            return;
+        }
+        Map<String, String> form = parseForm(readBody(exchange));
+        ApiUser user = usersByUsername.get(form.getOrDefault("username", ""));
+        if (!"password".equals(form.get("grant_type")) || user == null || !user.password().equals(form.get("password"))) {
+            sendJson(exchange, 401, Map.of("message", "Invalid username/password"));
+            return;
+        }
+        String accessToken = UUID.randomUUID().toString();
+        usernamesByToken.put(accessToken, user.username());
+        sendJson(exchange, 200, Map.of("access_token", accessToken, "token_type", "Bearer", "expires_in", 3600));
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        return Arrays.stream(form.split("&"))
+                .filter(field -> field.contains("="))
+                .map(field -> field.split("=", 2))
+                .collect(Collectors.toMap(field -> URLDecoder.decode(field[0], StandardCharsets.UTF_8),
+                        field -> URLDecoder.decode(field[1], StandardCharsets.UTF_8), (first, second) -> second, HashMap::new));
+    }
+
+    private static void sendJson(HttpExchange exchange, int statusCode, Map<String, Object> body) throws IOException {
+        byte[] response = JSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, response.length);
+        try (var responseBody = exchange.getResponseBody()) {
+            responseBody.write(response);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.justtestit.buggy.listener;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * This enum classifies the cause of a failed scenario, to decide whether the scenario is worth retrying.
+ */
+public enum FailureCategory {
+
+    /**
+     * The browser or WebDriver session failed (e.g. SessionNotCreatedException, NoSuchSessionException, unreachable browser).
+     * The scenario is retried on a new session.
+     */
+    INFRASTRUCTURE(true),
+
+    /**
+     * A wait or element interaction failed (e.g. TimeoutException, StaleElementReferenceException). Often flaky,
+     * the scenario is retried on the same session after a reset.
+     */
+    TIMING(true),
+
+    /**
+     * An assertion failed. This usually reports a real defect, so the scenario is only retried if 'retry.assertions' is true.
+     */
+    ASSERTION(false),
+
+    /**
+     * Any other error, e.g. a bug in the test code. The scenario is not retried.
+     */
+    OTHER(false);
+
+    private final boolean retryable;
+
+    FailureCategory(boolean retryable) {
+        this.retryable = retryable;
+    }
+
+    /**
+     * Returns whether scenarios failing with this category are retried.
+     *
+     * @param retryAssertions whether assertion failures should be retried too
+     * @return true if the scenario should be retried, false otherwise
+     */
+    public boolean isRetryable(boolean retryAssertions) {
+        return retryable || (this == ASSERTION && retryAssertions);
+    }
+
+    /**
+     * Classifies the failure by the first recognized exception in its cause chain.
+     *
+     * @param throwable the failure of the scenario, may be null
+     * @return the failure category
+     */
+    public static FailureCategory of(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof AssertionError) {
+                return ASSERTION;
+            }
+            if (cause instanceof TimeoutException
+                    || cause instanceof StaleElementReferenceException
+                    || cause instanceof NoSuchElementException
+                    || cause instanceof ElementClickInterceptedException
+                    || cause instanceof ElementNotInteractableException) {
+                return TIMING;
+            }
+            if (cause instanceof WebDriverException) {
+                return INFRASTRUCTURE;
+            }
+        }
+        return OTHER;
+    }
+}
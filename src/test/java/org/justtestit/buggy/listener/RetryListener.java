@@ -0,0 +1,56 @@
+package org.justtestit.buggy.listener;
+
+import org.justtestit.buggy.steps.Hooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAnnotationTransformer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.annotations.ITestAnnotation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This TestNG listener adds the ScenarioRetryAnalyzer to the scenario test methods of the runners, and stops the run
+ * (shard) early: once the number of failed scenarios reaches 'failfast.threshold', the remaining scenarios are skipped.
+ * Retried attempts don't count as failures. The threshold is read from the config properties file or the
+ * 'failfast.threshold' system property, and is disabled by default (0).
+ *
+ * The listener is registered in the TestNG suite files.
+ */
+public class RetryListener implements IAnnotationTransformer, IInvokedMethodListener, ITestListener {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryListener.class);
+
+    private static final int FAIL_FAST_THRESHOLD = Integer.parseInt(System.getProperty("failfast.threshold", Hooks.loadConfig().getProperty("failfast.threshold", "0")));
+    private static final AtomicInteger FAILED_SCENARIOS = new AtomicInteger();
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (testMethod != null && testMethod.getName().equals("runScenario")) {
+            annotation.setRetryAnalyzer(ScenarioRetryAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && FAIL_FAST_THRESHOLD > 0 && FAILED_SCENARIOS.get() >= FAIL_FAST_THRESHOLD) {
+            throw new SkipException("Skipped by fail-fast: " + FAILED_SCENARIOS.get() + " scenario(s) already failed, threshold is " + FAIL_FAST_THRESHOLD);
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        int failedScenarios = FAILED_SCENARIOS.incrementAndGet();
+        if (FAIL_FAST_THRESHOLD > 0 && failedScenarios == FAIL_FAST_THRESHOLD) {
+            LOGGER.error("Fail-fast threshold of " + FAIL_FAST_THRESHOLD + " failed scenario(s) reached, skipping the remaining scenarios");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.justtestit.buggy.listener;
+
+import commons.properties.PropertiesManager;
+import commons.web.WebDriverSessionPool;
+import org.justtestit.buggy.steps.Hooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class decides whether a failed scenario is run again by TestNG.
+ *
+ * A scenario is retried when its failure is retryable (see FailureCategory), it has retries left ('retry.max.attempts',
+ * default 1) and the run has retries left ('retry.budget', default 5), as per configured in the config properties file or
+ * overridden by system properties. The retry runs on the same thread, so it takes the
+ * same pooled browser session after its reset; after an infrastructure failure the pooled session is discarded first, so
+ * the retry gets a new session.
+ */
+public class ScenarioRetryAnalyzer implements IRetryAnalyzer {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioRetryAnalyzer.class);
+
+    private static final PropertiesManager PROPERTIES_MANAGER = Hooks.loadConfig();
+    private static final int MAX_ATTEMPTS = Integer.parseInt(System.getProperty("retry.max.attempts", PROPERTIES_MANAGER.getProperty("retry.max.attempts", "1")));
+    private static final boolean RETRY_ASSERTIONS = Boolean.parseBoolean(System.getProperty("retry.assertions", PROPERTIES_MANAGER.getProperty("retry.assertions", "false")));
+    private static final AtomicInteger REMAINING_BUDGET = new AtomicInteger(Integer.parseInt(System.getProperty("retry.budget", PROPERTIES_MANAGER.getProperty("retry.budget", "5"))));
+    // Keyed by the scenario (data provider parameter), because TestNG may create several analyzer instances per scenario
+    private static final Map<Object, AtomicInteger> RETRIES_BY_SCENARIO = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean retry(ITestResult result) {
+        Object scenario = result.getParameters().length > 0 ? result.getParameters()[0] : result.getMethod();
+        FailureCategory failureCategory = FailureCategory.of(result.getThrowable());
+        if (!failureCategory.isRetryable(RETRY_ASSERTIONS)) {
+            LOGGER.info("Not retrying scenario " + scenario + ", failure category: " + failureCategory);
+            return false;
+        }
+        AtomicInteger retries = RETRIES_BY_SCENARIO.computeIfAbsent(scenario, key -> new AtomicInteger());
+        if (retries.get() >= MAX_ATTEMPTS) {
+            LOGGER.info("Not retrying scenario " + scenario + ", already retried " + retries.get() + " time(s)");
+            return false;
+        }
+        if (REMAINING_BUDGET.getAndUpdate(budget -> Math.max(0, budget - 1)) <= 0) {
+            LOGGER.warn("Not retrying scenario " + scenario + ", retry budget of the run is used up");
+            return false;
+        }
+        if (failureCategory == FailureCategory.INFRASTRUCTURE) {
+            WebDriverSessionPool.discardIdleSession();
+        }
+        LOGGER.warn("Retrying scenario " + scenario + " (retry " + retries.incrementAndGet() + " of " + MAX_ATTEMPTS + ") after " + failureCategory + " failure: " + result.getThrowable());
+        return true;
+    }
+}
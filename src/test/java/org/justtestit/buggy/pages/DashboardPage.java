@@ -2,7 +2,6 @@ package org.justtestit.buggy.pages;
 
 import commons.web.WebDriverManager;
 import org.openqa.selenium.By;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 /**
  * This class represents the Dashboard page.
@@ -63,7 +62,7 @@ public class DashboardPage {
      * @return true if the logout link is invisible on the page, false otherwise
      */
     public boolean isLogoutLinkInvisible() {
-        return webDriverManager.getWebDriverWait().until(ExpectedConditions.invisibilityOfElementLocated(logoutLink));
+        return webDriverManager.isInvisible(logoutLink);
     }
 
 }
@@ -40,7 +40,21 @@ public class HomePage {
      * @param baseUrl The URL to be opened
      */
     public void open(String baseUrl) {
-        webDriverManager.getDriver().get(baseUrl);
+        webDriverManager.navigateTo(baseUrl);
+    }
+
+    /**
+     * Opens the specified base URL as a logged-in user, by storing the access token obtained through the API in the
+     * browser local storage and reloading the page, instead of filling in the login form.
+     *
+     * @param baseUrl The URL to be opened
+     * @param tokenStorageKey The local storage key under which the application keeps the access token
+     * @param accessToken The access token of the user
+     */
+    public void openWithAccessToken(String baseUrl, String tokenStorageKey, String accessToken) {
+        webDriverManager.navigateTo(baseUrl);
+        webDriverManager.getJavascriptExecutor().executeScript("window.localStorage.setItem(arguments[0], arguments[1]);", tokenStorageKey, accessToken);
+        webDriverManager.getDriver().navigate().refresh();
     }
 
     /**
@@ -65,6 +79,21 @@ public class HomePage {
         return webDriverManager.waitUntilVisibilityThenGetWebElement(invalidLoginErrorMessage(errorMessage)).isDisplayed();
     }
 
+    /**
+     * Checks whether the specified browser validation message is displayed for the login form, i.e. it is the validation
+     * message of the first invalid login form field.
+     *
+     * @param validationMessage The validation message to be checked, e.g. 'Please fill out this field.'
+     * @return true if the validation message is displayed, false otherwise
+     */
+    public boolean isValidationMessageDisplayed(String validationMessage) {
+        return webDriverManager.getFieldValidations(loginTextbox, passwordTextbox).values().stream()
+                .filter(fieldValidation -> !fieldValidation.valid())
+                .findFirst()
+                .map(fieldValidation -> fieldValidation.validationMessage().equals(validationMessage))
+                .orElse(false);
+    }
+
     /**
      * Checks whether the login button is displayed.
      *
@@ -1,8 +1,13 @@
 package org.justtestit.buggy.pages;
 
+import commons.web.PageSnapshot;
 import commons.web.WebDriverManager;
 import org.openqa.selenium.By;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * This class represents the Profile page.
  * It contains instance variables to store locators related to the Profile page.
@@ -29,30 +34,24 @@ public class ProfilePage {
     //********** PAGE ACTION METHODS **********
 
     /**
-     * Retrieves the value of the "login" text box.
-     *
-     * @return The value of the "login" text box
-     */
-    public String getLoginValue() {
-        return webDriverManager.waitUntilVisibilityThenGetWebElement(loginTextbox).getAttribute("value");
-    }
-
-    /**
-     * Retrieves the value of the "first name" text box.
-     *
-     * @return The value of the "first name" text box
-     */
-    public String getFirstNameValue() {
-        return webDriverManager.waitUntilVisibilityThenGetWebElement(firstNameTextbox).getAttribute("value");
-    }
-
-    /**
-     * Retrieves the value of the "last name" text box.
+     * Retrieves the values of the "login", "first name" and "last name" text boxes at once. The profile form is filled in
+     * asynchronously, so the snapshot is taken again until all three text boxes are displayed with a value.
      *
-     * @return The value of the "last name" text box
+     * @return The snapshot of the text boxes, with element names 'login', 'firstName' and 'lastName'
      */
-    public String getLastNameValue() {
-        return webDriverManager.waitUntilVisibilityThenGetWebElement(lastNameTextbox).getAttribute("value");
+    public PageSnapshot getUserInfoSnapshot() {
+        Map<String, By> userInfoLocators = new LinkedHashMap<>();
+        userInfoLocators.put("login", loginTextbox);
+        userInfoLocators.put("firstName", firstNameTextbox);
+        userInfoLocators.put("lastName", lastNameTextbox);
+        return webDriverManager.getWebDriverWait()
+                .pollingEvery(Duration.ofMillis(100))
+                .until(driver -> {
+                    PageSnapshot snapshot = webDriverManager.getPageSnapshot(userInfoLocators);
+                    boolean filledIn = userInfoLocators.keySet().stream()
+                            .allMatch(name -> snapshot.isDisplayed(name) && snapshot.getValue(name) != null && !snapshot.getValue(name).isEmpty());
+                    return filledIn ? snapshot : null;
+                });
     }
 
 }
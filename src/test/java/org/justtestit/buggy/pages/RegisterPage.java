@@ -46,7 +46,7 @@ public class RegisterPage {
      * @param baseUrl The base URL to navigate to.
      */
     public void open(String baseUrl) {
-        webDriverManager.getDriver().get(baseUrl + "register");
+        webDriverManager.navigateTo(baseUrl + "register");
     }
 
     /**
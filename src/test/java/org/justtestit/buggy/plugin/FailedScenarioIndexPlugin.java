@@ -0,0 +1,90 @@
+package org.justtestit.buggy.plugin;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * This Cucumber plugin writes the failed scenarios of the run to an index file in Cucumber rerun format
+ * ('uri:line:line', one feature file per line), which can be run again with the TestNgRerunRunner.
+ *
+ * Unlike the built-in 'rerun' plugin, only the latest attempt of a scenario counts, so a scenario that passed when it was
+ * retried is not written to the index. The index is written even if no scenario failed, so a previous index never stays
+ * behind.
+ *
+ * Usage: plugin = {"org.justtestit.buggy.plugin.FailedScenarioIndexPlugin:target/rerun.txt"}
+ */
+public class FailedScenarioIndexPlugin implements ConcurrentEventListener {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailedScenarioIndexPlugin.class);
+
+    private final File indexFile;
+    // Latest status of every scenario, by feature file and scenario line
+    private final Map<String, Map<Integer, Status>> statuses = new TreeMap<>();
+
+    /**
+     * Constructor to initialize the FailedScenarioIndexPlugin class.
+     *
+     * @param indexFile the index file to write
+     */
+    public FailedScenarioIndexPlugin(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeIndex());
+    }
+
+    private synchronized void handleTestCaseFinished(TestCaseFinished event) {
+        String uri = FeatureFiles.toRelativePath(event.getTestCase().getUri());
+        statuses.computeIfAbsent(uri, key -> new TreeMap<>()).put(event.getTestCase().getLocation().getLine(), event.getResult().getStatus());
+    }
+
+    private synchronized void writeIndex() {
+        List<String> lines = new ArrayList<>();
+        int failedCount = 0;
+        for (Map.Entry<String, Map<Integer, Status>> feature : statuses.entrySet()) {
+            Set<Integer> failedLines = new TreeSet<>();
+            feature.getValue().forEach((line, status) -> {
+                if (status != Status.PASSED && status != Status.SKIPPED) {
+                    failedLines.add(line);
+                }
+            });
+            if (!failedLines.isEmpty()) {
+                StringBuilder indexLine = new StringBuilder(feature.getKey());
+                failedLines.forEach(line -> indexLine.append(':').append(line));
+                lines.add(indexLine.toString());
+                failedCount += failedLines.size();
+            }
+        }
+        try {
+            if (indexFile.getParentFile() != null) {
+                Files.createDirectories(indexFile.getParentFile().toPath());
+            }
+            Files.write(indexFile.toPath(), lines, StandardCharsets.UTF_8);
+            LOGGER.info(failedCount + " failed scenario(s) written to: " + indexFile);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write failed scenario index: " + indexFile, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.justtestit.buggy.plugin;
+
+import java.io.File;
+import java.net.URI;
+
+/**
+ * This class contains helper methods for the feature file URIs of the scenarios, shared by the plugins.
+ */
+final class FeatureFiles {
+
+    // Prevent instantiation of this class
+    private FeatureFiles() {}
+
+    /**
+     * Returns the feature file path relative to the working directory, as used in rerun files.
+     *
+     * @param uri the feature file URI of the scenario
+     * @return the relative path, or the URI itself if it is not a file under the working directory
+     */
+    static String toRelativePath(URI uri) {
+        if (!"file".equals(uri.getScheme())) {
+            return uri.toString();
+        }
+        URI workingDirectory = new File("").getAbsoluteFile().toURI();
+        return workingDirectory.relativize(uri.isOpaque() ? new File(uri.getSchemeSpecificPart()).getAbsoluteFile().toURI() : uri).getPath();
+    }
+}
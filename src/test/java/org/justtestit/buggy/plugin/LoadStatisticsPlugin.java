@@ -0,0 +1,34 @@
+package org.justtestit.buggy.plugin;
+
+import commons.load.LoadStatistics;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * This Cucumber plugin records the latency of every step (by step definition pattern, so all the data rows of a step
+ * share one histogram) and of every scenario into the LoadStatistics, while they are being recorded by a load run.
+ *
+ * Usage: plugin = {"org.justtestit.buggy.plugin.LoadStatisticsPlugin"}
+ */
+public class LoadStatisticsPlugin implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+    }
+
+    private void handleTestStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep step && event.getResult().getStatus() != Status.SKIPPED) {
+            LoadStatistics.record("step: " + step.getPattern(), event.getResult().getDuration().toMillis(), event.getResult().getStatus() != Status.PASSED);
+        }
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        LoadStatistics.record("scenario: " + event.getTestCase().getName(), event.getResult().getDuration().toMillis(), event.getResult().getStatus() != Status.PASSED);
+    }
+}
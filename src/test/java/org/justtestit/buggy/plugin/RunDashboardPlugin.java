@@ -0,0 +1,71 @@
+package org.justtestit.buggy.plugin;
+
+import commons.monitor.RunDashboard;
+import commons.web.BrowserSelection;
+import commons.web.WebDriverSessionPool;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+
+/**
+ * This Cucumber plugin feeds the RunDashboard with the scenario start and finish events, and registers the WebDriver
+ * session pool utilization as dashboard gauges. The dashboard runs from the start to the end of the run, on the port of
+ * the plugin argument, unless overridden with -Ddashboard.port (0 or less disables the dashboard).
+ *
+ * Usage: plugin = {"org.justtestit.buggy.plugin.RunDashboardPlugin:8090"}
+ */
+public class RunDashboardPlugin implements ConcurrentEventListener {
+
+    private final int port;
+
+    /**
+     * Constructor to initialize the RunDashboardPlugin class.
+     *
+     * @param port the port of the dashboard, overridden by the 'dashboard.port' system property
+     */
+    public RunDashboardPlugin(String port) {
+        this.port = Integer.parseInt(System.getProperty("dashboard.port", port));
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (port <= 0) {
+            return;
+        }
+        publisher.registerHandlerFor(TestRunStarted.class, event -> start());
+        publisher.registerHandlerFor(TestCaseStarted.class, event ->
+                RunDashboard.scenarioStarted(event.getTestCase().getName(), getLocation(event.getTestCase())));
+        publisher.registerHandlerFor(TestCaseFinished.class, event ->
+                RunDashboard.scenarioFinished(event.getTestCase().getName(), getLocation(event.getTestCase()),
+                        event.getResult().getStatus().name(), event.getResult().getDuration().toMillis()));
+        publisher.registerHandlerFor(TestRunFinished.class, event -> RunDashboard.stop());
+    }
+
+    private void start() {
+        RunDashboard.registerGauge("webdriver_sessions_open", "Open WebDriver sessions, in use or idle",
+                () -> WebDriverSessionPool.getStatistics().openSessions());
+        RunDashboard.registerGauge("webdriver_sessions_in_use", "WebDriver sessions in use by scenarios",
+                () -> WebDriverSessionPool.getStatistics().inUseSessions());
+        RunDashboard.registerGauge("webdriver_sessions_idle", "Idle WebDriver sessions waiting to be reused",
+                () -> WebDriverSessionPool.getStatistics().idleSessions());
+        RunDashboard.registerGauge("webdriver_browser_capacity", "Maximum WebDriver sessions in use at once, 0 if unlimited",
+                () -> WebDriverSessionPool.getStatistics().browserCapacity());
+        RunDashboard.registerGauge("webdriver_scenarios_waiting_for_browser", "Scenarios waiting for a free browser slot",
+                () -> WebDriverSessionPool.getStatistics().waitingScenarios());
+        RunDashboard.start(port);
+    }
+
+    /**
+     * Returns the feature file name and line of the scenario, followed by the browser selected for the scenario in a
+     * cross-browser matrix run, e.g. 'Login.feature:12 [firefox]'.
+     */
+    private static String getLocation(TestCase testCase) {
+        String uri = testCase.getUri().toString();
+        return uri.substring(uri.lastIndexOf('/') + 1) + ":" + testCase.getLocation().getLine()
+                + BrowserSelection.getSelected().map(browser -> " [" + browser + "]").orElse("");
+    }
+}
@@ -0,0 +1,255 @@
+package org.justtestit.buggy.plugin;
+
+import commons.web.BrowserSelection;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestSourceRead;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.WriteEvent;
+import org.justtestit.buggy.report.ScenarioResultReport;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * This Cucumber plugin streams the result of every scenario to a results file, one JSON object per line (NDJSON), as
+ * soon as the scenario finishes. Attachments (screenshots, network captures) are written to files in the 'attachments'
+ * directory next to the results file, and only their paths are kept in the results.
+ *
+ * Unlike the built-in 'html' and 'json' plugins, only the scenarios still running are held in memory, so the heap usage
+ * doesn't grow with the size of the suite, and the results of the finished scenarios survive a crash of the JVM. At the
+ * end of the run, the HTML report 'cucumber-reports.html' is rendered next to the results file by the
+ * ScenarioResultReport, which can also render it separately from a results file.
+ *
+ * A retried scenario is written once per attempt; the report shows its latest attempt. In a cross-browser matrix run, the
+ * browser selected for the scenario is written as well, and the report shows the latest attempt per browser.
+ *
+ * Usage: plugin = {"org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/cucumber-results.ndjson"}
+ */
+public class ScenarioResultStreamPlugin implements ConcurrentEventListener {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioResultStreamPlugin.class);
+
+    private static final Json JSON = new Json();
+    private static final Pattern FEATURE_NAME = Pattern.compile("^\\s*Feature:\\s*(.*?)\\s*$", Pattern.MULTILINE);
+    private static final Map<String, String> FILE_EXTENSIONS = Map.of(
+            "image/png", "png", "image/jpeg", "jpg", "text/plain", "txt", "text/html", "html",
+            "application/json", "json", "application/gzip", "gz");
+
+    private final Path resultsFile;
+    private final Path attachmentsDir;
+    private final Map<URI, String> featureNames = new ConcurrentHashMap<>();
+    // Results of the scenarios still running, by test case id
+    private final Map<UUID, Map<String, Object>> runningScenarios = new ConcurrentHashMap<>();
+    private final AtomicInteger attachmentCount = new AtomicInteger();
+    private Writer writer;
+    private int scenarioCount;
+
+    /**
+     * Constructor to initialize the ScenarioResultStreamPlugin class.
+     *
+     * @param resultsFile the NDJSON results file to write
+     */
+    public ScenarioResultStreamPlugin(File resultsFile) {
+        this.resultsFile = resultsFile.toPath();
+        this.attachmentsDir = this.resultsFile.resolveSibling(ScenarioResultReport.ATTACHMENTS_DIR_NAME);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> open());
+        publisher.registerHandlerFor(TestSourceRead.class, this::handleTestSourceRead);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::handleTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::handleEmbed);
+        publisher.registerHandlerFor(WriteEvent.class, this::handleWrite);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> close());
+    }
+
+    /**
+     * Starts a new results file and removes the attachments of the previous run, including the rerun attachments merged
+     * into it.
+     */
+    private synchronized void open() {
+        try {
+            Files.createDirectories(attachmentsDir);
+            try (Stream<Path> previousAttachments = Files.walk(attachmentsDir)) {
+                // Deepest first, so every directory is empty when it is deleted
+                for (Path previousAttachment : previousAttachments.sorted(Comparator.reverseOrder()).toList()) {
+                    if (!previousAttachment.equals(attachmentsDir)) {
+                        Files.deleteIfExists(previousAttachment);
+                    }
+                }
+            }
+            writer = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.error("Failed to open scenario results file: " + resultsFile, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void handleTestSourceRead(TestSourceRead event) {
+        Matcher matcher = FEATURE_NAME.matcher(event.getSource());
+        featureNames.put(event.getUri(), matcher.find() ? matcher.group(1) : "");
+    }
+
+    private void handleTestCaseStarted(TestCaseStarted event) {
+        TestCase testCase = event.getTestCase();
+        Map<String, Object> scenario = new LinkedHashMap<>();
+        scenario.put("uri", FeatureFiles.toRelativePath(testCase.getUri()));
+        scenario.put("line", testCase.getLocation().getLine());
+        scenario.put("feature", featureNames.getOrDefault(testCase.getUri(), ""));
+        scenario.put("name", testCase.getName());
+        scenario.put("tags", testCase.getTags());
+        scenario.put("startTime", event.getInstant().toString());
+        scenario.put("thread", Thread.currentThread().getName());
+        BrowserSelection.getSelected().ifPresent(browser -> scenario.put("browser", browser));
+        scenario.put("steps", new ArrayList<Map<String, Object>>());
+        scenario.put("attachments", new ArrayList<Map<String, Object>>());
+        scenario.put("logs", new ArrayList<String>());
+        runningScenarios.put(testCase.getId(), scenario);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handleTestStepFinished(TestStepFinished event) {
+        Map<String, Object> scenario = runningScenarios.get(event.getTestCase().getId());
+        Result result = event.getResult();
+        // Hooks are reported only when they failed, they are not part of the scenario text
+        if (scenario == null || (event.getTestStep() instanceof HookTestStep && result.getStatus() == Status.PASSED)) {
+            return;
+        }
+        Map<String, Object> step = new LinkedHashMap<>();
+        if (event.getTestStep() instanceof PickleStepTestStep pickleStep) {
+            step.put("text", pickleStep.getStep().getKeyword() + pickleStep.getStep().getText());
+            step.put("line", pickleStep.getStep().getLine());
+        } else {
+            step.put("text", ((HookTestStep) event.getTestStep()).getHookType() + " " + event.getTestStep().getCodeLocation());
+        }
+        step.put("status", result.getStatus().name());
+        step.put("durationMillis", result.getDuration().toMillis());
+        if (result.getError() != null) {
+            step.put("error", toStackTrace(result.getError()));
+        }
+        ((List<Map<String, Object>>) scenario.get("steps")).add(step);
+    }
+
+    /**
+     * Writes the attachment to its own file straight away, so its content is not held until the end of the scenario.
+     */
+    @SuppressWarnings("unchecked")
+    private void handleEmbed(EmbedEvent event) {
+        Map<String, Object> scenario = runningScenarios.get(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
+        String name = event.getName() == null ? "attachment" : event.getName();
+        String fileName = attachmentCount.incrementAndGet() + "_" + name.replaceAll("[^A-Za-z0-9._-]", "_") + "."
+                + FILE_EXTENSIONS.getOrDefault(event.getMediaType(), "bin");
+        Path attachmentFile = attachmentsDir.resolve(fileName);
+        try {
+            Files.write(attachmentFile, event.getData());
+        } catch (IOException e) {
+            LOGGER.error("Failed to write attachment: " + attachmentFile, e);
+            return;
+        }
+        Map<String, Object> attachment = new LinkedHashMap<>();
+        attachment.put("name", name);
+        attachment.put("mediaType", event.getMediaType());
+        attachment.put("path", resultsFile.toAbsolutePath().getParent().relativize(attachmentFile.toAbsolutePath()).toString().replace('\\', '/'));
+        ((List<Map<String, Object>>) scenario.get("attachments")).add(attachment);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handleWrite(WriteEvent event) {
+        Map<String, Object> scenario = runningScenarios.get(event.getTestCase().getId());
+        if (scenario != null) {
+            ((List<String>) scenario.get("logs")).add(event.getText());
+        }
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        Map<String, Object> scenario = runningScenarios.remove(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
+        Result result = event.getResult();
+        scenario.put("status", result.getStatus().name());
+        scenario.put("durationMillis", result.getDuration().toMillis());
+        if (result.getError() != null) {
+            scenario.put("error", toStackTrace(result.getError()));
+        }
+        write(scenario);
+    }
+
+    /**
+     * Appends the scenario result as one line and flushes it, so it is on disk even if the JVM crashes later.
+     */
+    private synchronized void write(Map<String, Object> scenario) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            JSON.newOutput(writer).setPrettyPrint(false).write(scenario);
+            writer.write('\n');
+            writer.flush();
+            scenarioCount++;
+        } catch (IOException e) {
+            LOGGER.error("Failed to write scenario result to: " + resultsFile, e);
+        }
+    }
+
+    private synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            writer = null;
+            LOGGER.info(scenarioCount + " scenario result(s) written to: " + resultsFile);
+            ScenarioResultReport.render(resultsFile, resultsFile.resolveSibling(ScenarioResultReport.REPORT_FILE_NAME));
+        } catch (IOException e) {
+            LOGGER.error("Failed to write scenario results report of: " + resultsFile, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toStackTrace(Throwable error) {
+        StringWriter stackTrace = new StringWriter();
+        error.printStackTrace(new PrintWriter(stackTrace));
+        return stackTrace.toString();
+    }
+}
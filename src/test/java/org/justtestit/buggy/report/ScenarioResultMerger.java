@@ -0,0 +1,116 @@
+package org.justtestit.buggy.report;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class merges the scenario results file of the ScenarioResultStreamPlugin (NDJSON) of a rerun into the results of
+ * the original run, so the report of the original run shows the latest result of every scenario.
+ *
+ * The results of the rerun are appended to the original results, as later attempts of their scenarios. Their attachments
+ * are copied next to the original results, so the report keeps them when the next rerun replaces its own attachments.
+ * The original results are kept as a backup next to them, with suffix '-original'.
+ *
+ * Usage (also called by the TestNgRerunRunner after the rerun):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.justtestit.buggy.report.ScenarioResultMerger -Dexec.args="target/cucumber-results.ndjson target/rerun/cucumber-results.ndjson"
+ * </pre>
+ */
+public class ScenarioResultMerger {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioResultMerger.class);
+
+    private static final Json JSON = new Json();
+
+    // Prevent instantiation of this class
+    private ScenarioResultMerger() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ScenarioResultMerger <original results> <rerun results>");
+        }
+        mergeResults(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    /**
+     * Merges the rerun scenario results file into the original results file, line by line, and renders the HTML report of
+     * the merged results next to it. The attachments of the rerun results are copied to a directory of their own under the
+     * attachments directory of the original results, and their paths updated. Nothing is merged if either results file is
+     * missing.
+     *
+     * @param originalResults the scenario results file of the original run, appended with the rerun results
+     * @param rerunResults the scenario results file of the rerun
+     * @throws IOException if a results file or an attachment can't be read or written
+     */
+    @SuppressWarnings("unchecked")
+    public static void mergeResults(Path originalResults, Path rerunResults) throws IOException {
+        if (!Files.exists(originalResults) || !Files.exists(rerunResults)) {
+            LOGGER.warn("Results not merged, missing original results '" + originalResults + "' or rerun results '" + rerunResults + "'");
+            return;
+        }
+        Path backupResults = originalResults.resolveSibling(originalResults.getFileName().toString().replaceFirst("\\.ndjson$", "") + "-original.ndjson");
+        Files.copy(originalResults, backupResults, StandardCopyOption.REPLACE_EXISTING);
+        Path originalDir = originalResults.toAbsolutePath().getParent();
+        Path rerunDir = rerunResults.toAbsolutePath().getParent();
+        // Every merge gets its own directory, so the attachments of an earlier rerun are never overwritten
+        Path mergedAttachmentsDir = originalDir.resolve(ScenarioResultReport.ATTACHMENTS_DIR_NAME).resolve("rerun-" + System.currentTimeMillis());
+        int[] appendedCount = {0};
+        IOException[] failure = {null};
+        try (BufferedWriter writer = Files.newBufferedWriter(originalResults, StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+            if (!endsWithNewLine(originalResults)) {
+                // The last line of a run that crashed while writing it is terminated, so it doesn't swallow the next result
+                writer.write('\n');
+            }
+            ScenarioResultReport.forEachResult(rerunResults, result -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    for (Map<String, Object> attachment : (List<Map<String, Object>>) result.getOrDefault("attachments", List.of())) {
+                        Path attachmentFile = rerunDir.resolve(String.valueOf(attachment.get("path"))).normalize();
+                        Path mergedAttachmentFile = mergedAttachmentsDir.resolve(attachmentFile.getFileName());
+                        Files.createDirectories(mergedAttachmentsDir);
+                        Files.copy(attachmentFile, mergedAttachmentFile, StandardCopyOption.REPLACE_EXISTING);
+                        attachment.put("path", originalDir.relativize(mergedAttachmentFile).toString().replace('\\', '/'));
+                    }
+                    JSON.newOutput(writer).setPrettyPrint(false).write(result);
+                    writer.write('\n');
+                    appendedCount[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        LOGGER.info("Merged rerun results '" + rerunResults + "' into '" + originalResults + "', " + appendedCount[0] + " scenario result(s) appended");
+        ScenarioResultReport.render(originalResults, originalResults.resolveSibling(ScenarioResultReport.REPORT_FILE_NAME));
+    }
+
+    private static boolean endsWithNewLine(Path file) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) == '\n';
+        }
+    }
+}
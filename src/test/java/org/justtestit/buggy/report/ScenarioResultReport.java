@@ -0,0 +1,238 @@
+package org.justtestit.buggy.report;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * This class renders the HTML report of a scenario results file written by the ScenarioResultStreamPlugin (one scenario
+ * result per line, NDJSON).
+ *
+ * The results file is read twice, line by line, so the report of a suite of any size is rendered with a flat heap: the
+ * first pass finds the latest attempt of every scenario and counts the statuses, the second pass writes the scenarios.
+ * Attachments are linked from their files (images are shown inline), not embedded. A line that can't be read, e.g. the
+ * last line of a run that crashed while writing it, is skipped.
+ *
+ * The results of a cross-browser matrix run carry the browser of every scenario: the latest attempt is then found per
+ * scenario and browser, and a table with a column per browser shows the status of every scenario in every browser.
+ *
+ * Usage (the report is also rendered by the plugin at the end of the run):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.justtestit.buggy.report.ScenarioResultReport -Dexec.args="target/cucumber-results.ndjson target/cucumber-reports.html"
+ * </pre>
+ */
+public class ScenarioResultReport {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioResultReport.class);
+
+    /**
+     * The file name of the HTML report rendered next to the results file.
+     */
+    public static final String REPORT_FILE_NAME = "cucumber-reports.html";
+
+    /**
+     * The name of the directory, next to the results file, with the attachment files of the results.
+     */
+    public static final String ATTACHMENTS_DIR_NAME = "attachments";
+
+    private static final Json JSON = new Json();
+    private static final String STYLE = """
+            body{font-family:sans-serif;margin:1.5em;color:#222}
+            details{border:1px solid #ccc;border-radius:4px;margin:.4em 0;padding:.3em .6em}
+            summary{cursor:pointer}
+            .PASSED{color:#1a7f37}.FAILED,.UNDEFINED,.AMBIGUOUS{color:#cf222e}.SKIPPED,.PENDING,.UNUSED{color:#9a6700}
+            .retried{opacity:.55}
+            pre{background:#f6f8fa;padding:.5em;overflow:auto;font-size:.85em}
+            img{max-width:100%;border:1px solid #ccc}
+            table{border-collapse:collapse}td{padding:.1em .8em .1em 0;vertical-align:top}
+            table.matrix{margin:1em 0}table.matrix th,table.matrix td{border:1px solid #ccc;padding:.2em .6em;text-align:left}
+            """;
+
+    // Prevent instantiation of this class
+    private ScenarioResultReport() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: ScenarioResultReport <results file> [<HTML report>]");
+        }
+        Path resultsFile = Paths.get(args[0]);
+        render(resultsFile, args.length == 2 ? Paths.get(args[1]) : resultsFile.resolveSibling(REPORT_FILE_NAME));
+    }
+
+    /**
+     * Renders the HTML report of the results file. Attachment paths of the results file must be relative to the
+     * directory of the report.
+     *
+     * @param resultsFile the NDJSON scenario results file
+     * @param reportFile the HTML report to write
+     * @throws IOException if the results file can't be read or the report can't be written
+     */
+    public static void render(Path resultsFile, Path reportFile) throws IOException {
+        // First pass: the latest attempt (line index) of every scenario, per browser in a matrix run
+        Map<String, Integer> latestAttempts = new HashMap<>();
+        Map<String, String> latestStatuses = new HashMap<>();
+        // Matrix rows in feature file and line order, columns in browser name order
+        Map<String, String> scenarioTitles = new TreeMap<>(Comparator
+                .comparing((String location) -> location.substring(0, location.lastIndexOf(':')))
+                .thenComparingInt(location -> Integer.parseInt(location.substring(location.lastIndexOf(':') + 1))));
+        Set<String> browsers = new TreeSet<>();
+        int[] lineIndex = {0};
+        forEachResult(resultsFile, result -> {
+            String key = getResultKey(result);
+            latestAttempts.put(key, lineIndex[0]++);
+            latestStatuses.put(key, String.valueOf(result.get("status")));
+            if (result.get("browser") != null) {
+                scenarioTitles.putIfAbsent(result.get("uri") + ":" + result.get("line"), result.get("feature") + ": " + result.get("name"));
+                browsers.add(String.valueOf(result.get("browser")));
+            }
+        });
+        Map<String, Integer> statusCounts = new TreeMap<>();
+        latestStatuses.values().forEach(status -> statusCounts.merge(status, 1, Integer::sum));
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            writer.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Cucumber report</title><style>" + STYLE + "</style></head><body>\n");
+            writer.write("<h1>Cucumber report</h1>\n<p>" + latestStatuses.size() + " scenario(s)");
+            for (Map.Entry<String, Integer> statusCount : statusCounts.entrySet()) {
+                writer.write(", <span class=\"" + escape(statusCount.getKey()) + "\">" + statusCount.getValue() + " " + escape(statusCount.getKey().toLowerCase()) + "</span>");
+            }
+            writer.write("</p>\n");
+            if (!browsers.isEmpty()) {
+                writeBrowserMatrix(writer, scenarioTitles, browsers, latestStatuses);
+            }
+
+            // Second pass: the scenarios, in the order they finished
+            int[] renderIndex = {0};
+            IOException[] writeFailure = {null};
+            forEachResult(resultsFile, result -> {
+                boolean retried = latestAttempts.get(getResultKey(result)) != renderIndex[0]++;
+                try {
+                    writeScenario(writer, result, retried);
+                } catch (IOException e) {
+                    writeFailure[0] = e;
+                }
+            });
+            if (writeFailure[0] != null) {
+                throw writeFailure[0];
+            }
+            writer.write("</body></html>\n");
+        }
+        LOGGER.info("Cucumber report of " + latestStatuses.size() + " scenario(s) written to: " + reportFile);
+    }
+
+    /**
+     * Writes the table of the statuses of every scenario (row) in every browser (column) of a matrix run.
+     */
+    private static void writeBrowserMatrix(Writer writer, Map<String, String> scenarioTitles, Set<String> browsers,
+                                           Map<String, String> latestStatuses) throws IOException {
+        writer.write("<table class=\"matrix\">\n<tr><th>Scenario</th>");
+        for (String browser : browsers) {
+            writer.write("<th>" + escape(browser) + "</th>");
+        }
+        writer.write("</tr>\n");
+        for (Map.Entry<String, String> scenarioTitle : scenarioTitles.entrySet()) {
+            writer.write("<tr><td>" + escape(scenarioTitle.getValue()) + " <small>(" + escape(scenarioTitle.getKey()) + ")</small></td>");
+            for (String browser : browsers) {
+                String status = latestStatuses.get(scenarioTitle.getKey() + " [" + browser + "]");
+                writer.write(status == null ? "<td>-</td>" : "<td class=\"" + escape(status) + "\">" + escape(status) + "</td>");
+            }
+            writer.write("</tr>\n");
+        }
+        writer.write("</table>\n");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeScenario(Writer writer, Map<String, Object> result, boolean retried) throws IOException {
+        String status = String.valueOf(result.get("status"));
+        boolean passed = "PASSED".equals(status);
+        writer.write("<details" + (passed ? "" : " open") + (retried ? " class=\"retried\"" : "") + "><summary><b class=\"" + escape(status) + "\">"
+                + escape(status) + "</b> " + (result.get("browser") != null ? "[" + escape(result.get("browser")) + "] " : "")
+                + escape(result.get("feature")) + ": " + escape(result.get("name"))
+                + " <small>(" + escape(result.get("uri")) + ":" + escape(result.get("line")) + ", " + escape(result.get("durationMillis")) + " ms"
+                + (retried ? ", retried" : "") + ")</small></summary>\n");
+        writer.write("<p><small>" + escape(String.join(" ", (List<String>) result.getOrDefault("tags", List.of())))
+                + " started " + escape(result.get("startTime")) + " on " + escape(result.get("thread")) + "</small></p>\n<table>\n");
+        for (Map<String, Object> step : (List<Map<String, Object>>) result.getOrDefault("steps", List.of())) {
+            writer.write("<tr><td class=\"" + escape(step.get("status")) + "\">" + escape(step.get("status")) + "</td><td>" + escape(step.get("text"))
+                    + "</td><td><small>" + escape(step.get("durationMillis")) + " ms</small></td></tr>\n");
+            if (step.get("error") != null) {
+                writer.write("<tr><td></td><td colspan=\"2\"><pre>" + escape(step.get("error")) + "</pre></td></tr>\n");
+            }
+        }
+        writer.write("</table>\n");
+        for (String log : (List<String>) result.getOrDefault("logs", List.of())) {
+            writer.write("<pre>" + escape(log) + "</pre>\n");
+        }
+        for (Map<String, Object> attachment : (List<Map<String, Object>>) result.getOrDefault("attachments", List.of())) {
+            String path = escape(attachment.get("path"));
+            if (String.valueOf(attachment.get("mediaType")).startsWith("image/")) {
+                writer.write("<p>" + escape(attachment.get("name")) + "<br><a href=\"" + path + "\"><img src=\"" + path + "\" loading=\"lazy\"></a></p>\n");
+            } else {
+                writer.write("<p><a href=\"" + path + "\">" + escape(attachment.get("name")) + "</a> <small>(" + escape(attachment.get("mediaType")) + ")</small></p>\n");
+            }
+        }
+        writer.write("</details>\n");
+    }
+
+    /**
+     * Returns the key of the scenario of a result: its location, followed by its browser in a matrix run.
+     */
+    private static String getResultKey(Map<String, Object> result) {
+        String location = result.get("uri") + ":" + result.get("line");
+        return result.get("browser") == null ? location : location + " [" + result.get("browser") + "]";
+    }
+
+    /**
+     * Reads the results file line by line and passes every scenario result to the consumer. Blank and unreadable lines
+     * are skipped.
+     *
+     * @param resultsFile the NDJSON scenario results file
+     * @param consumer the consumer of the scenario results
+     * @throws IOException if the results file can't be read
+     */
+    static void forEachResult(Path resultsFile, Consumer<Map<String, Object>> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(resultsFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> result;
+                try {
+                    result = JSON.toType(line, Json.MAP_TYPE);
+                } catch (JsonException e) {
+                    LOGGER.warn("Skipping unreadable scenario result at line " + lineNumber + " of: " + resultsFile);
+                    continue;
+                }
+                consumer.accept(result);
+            }
+        }
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return String.valueOf(value).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -16,8 +16,7 @@ import io.cucumber.junit.CucumberOptions;
         monochrome = true,
         tags="@regression",
         plugin={"pretty",
-                "html:target/cucumber-reports.html",
-                "json:target/cucumber.json",
+                "org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/cucumber-results.ndjson",
         }
 )
 public class JUnitRunner {
@@ -0,0 +1,140 @@
+package org.justtestit.buggy.runner;
+
+import commons.concurrent.VirtualThreads;
+import commons.load.LoadStatistics;
+import commons.web.WebDriverSessionPool;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class replays the selected scenarios as a light load test: a number of virtual users, each with its own headless
+ * browser session, run the scenarios over and over until the end of the load duration. The users are started one after
+ * the other during the ramp-up.
+ *
+ * The virtual users run on virtual threads when the JDK supports them (Java 21 or higher), otherwise on platform threads.
+ * The latency histograms of every step, scenario and page load are logged and written to 'target/load/load-statistics.csv'.
+ *
+ * Configuration (system properties): 'load.users' (default 3), 'load.ramp.up' seconds (default 10), 'load.duration'
+ * seconds (default 60), and 'cucumber.filter.tags' to choose the scenarios (default '@smoke').
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"org.justtestit.buggy.steps"},
+        monochrome = true,
+        publish = false,
+        tags = "@smoke",
+        plugin = {"org.justtestit.buggy.plugin.LoadStatisticsPlugin"}
+)
+public class LoadTestRunner {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestRunner.class);
+    private static final Path STATISTICS_FILE = Paths.get("target", "load", "load-statistics.csv");
+
+    private final TestNGCucumberRunner cucumberRunner;
+    private final List<Pickle> scenarios;
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicLong failedIterations = new AtomicLong();
+
+    private LoadTestRunner() {
+        this.cucumberRunner = new TestNGCucumberRunner(LoadTestRunner.class);
+        this.scenarios = Arrays.stream(cucumberRunner.provideScenarios()).map(row -> ((PickleWrapper) row[0]).getPickle()).toList();
+    }
+
+    /**
+     * Runs the load test with the configuration of the system properties.
+     *
+     * @param args not used
+     * @throws InterruptedException if interrupted while waiting for the virtual users
+     * @throws IOException if the statistics file can't be written
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int users = Integer.getInteger("load.users", 3);
+        Duration rampUp = Duration.ofSeconds(Integer.getInteger("load.ramp.up", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 60));
+        if (System.getProperty("headless") == null) {
+            System.setProperty("headless", "true");
+        }
+        new LoadTestRunner().run(users, rampUp, duration);
+    }
+
+    private void run(int users, Duration rampUp, Duration duration) throws InterruptedException, IOException {
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No scenario selected for the load test, check 'cucumber.filter.tags'");
+        }
+        LOGGER.info("Starting load test: " + users + " virtual user(s), ramp-up " + rampUp.getSeconds() + " second(s), duration "
+                + duration.getSeconds() + " second(s), " + scenarios.size() + " scenario(s)");
+        LoadStatistics.start();
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("virtual-user-");
+        try {
+            for (int user = 0; user < users; user++) {
+                int userIndex = user;
+                long startDelayNanos = rampUp.toNanos() * user / users;
+                executor.submit(() -> runVirtualUser(userIndex, startNanos + startDelayNanos, endNanos));
+            }
+            executor.shutdown();
+            // The iterations running at the end of the duration are completed
+            if (!executor.awaitTermination(duration.plus(rampUp).plusMinutes(10).toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.error("Virtual users still running after the load test, interrupting them");
+                executor.shutdownNow();
+            }
+        } finally {
+            LoadStatistics.stop();
+            cucumberRunner.finish();
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        LOGGER.info("Load test finished: " + iterations.get() + " iteration(s), " + failedIterations.get() + " failed, "
+                + String.format("%.2f", iterations.get() / elapsedSeconds) + " iteration(s)/second\n" + LoadStatistics.toTable());
+        LoadStatistics.writeCsv(STATISTICS_FILE);
+    }
+
+    /**
+     * Runs the scenarios one after the other, starting with a different scenario per user, until the end of the load
+     * duration. The browser session of the user is reused between iterations and quit at the end.
+     *
+     * @param userIndex the index of the virtual user
+     * @param startNanos when the user starts, in System.nanoTime() units
+     * @param endNanos when the user stops starting new iterations, in System.nanoTime() units
+     */
+    private void runVirtualUser(int userIndex, long startNanos, long endNanos) {
+        try {
+            long delayNanos = startNanos - System.nanoTime();
+            if (delayNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+            LOGGER.info("Virtual user " + userIndex + " started");
+            for (int iteration = 0; System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted(); iteration++) {
+                Pickle scenario = scenarios.get((userIndex + iteration) % scenarios.size());
+                iterations.incrementAndGet();
+                try {
+                    cucumberRunner.runScenario(scenario);
+                } catch (Throwable e) {
+                    failedIterations.incrementAndGet();
+                    LOGGER.warn("Virtual user " + userIndex + " failed scenario '" + scenario.getName() + "': " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            WebDriverSessionPool.discardIdleSession();
+            LOGGER.info("Virtual user " + userIndex + " stopped");
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.justtestit.buggy.runner;
+
+import commons.concurrent.VirtualThreads;
+import commons.properties.PropertiesManager;
+import commons.web.BrowserSelection;
+import commons.web.WebDriverSessionPool;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.justtestit.buggy.listener.FailureCategory;
+import org.justtestit.buggy.steps.Hooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * This class is used to configure Cucumber options and run the test(s) as a cross-browser matrix: every scenario is
+ * executed once per browser of 'matrix.browsers' (system property or config properties file), in a single run.
+ *
+ * All the scenario and browser combinations are started at once, each on its own thread (virtual threads on Java 21 or
+ * higher) with its browser selected, and wait for a free browser slot: the concurrency is limited by 'browser.capacity'
+ * and, per browser, by 'browser.capacity.<browser>'. Idle browser sessions are shared between the scenarios of the same
+ * browser. The report shows the status of every scenario per browser. The runner drives a TestNGCucumberRunner directly,
+ * as its test method takes the browser as well as the scenario.
+ *
+ * The browsers are launched locally (or on the Selenium Grid if 'grid.url' is configured), so they must be installed;
+ * Safari is only supported on macOS or on the Grid.
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"org.justtestit.buggy.steps"},
+        monochrome = true,
+        dryRun = false,
+        publish = false,
+        tags="@regression",
+        plugin = {"pretty",
+                "org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/cucumber-results.ndjson",
+                "junit:target/junit-cucumber-results.xml",
+                "org.justtestit.buggy.plugin.RunDashboardPlugin:8090"
+        }
+)
+public class TestNgMatrixRunner {
+
+        //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+        private static final Logger LOGGER = LoggerFactory.getLogger(TestNgMatrixRunner.class);
+
+        private static final Set<String> SUPPORTED_BROWSERS = Set.of("chrome", "firefox", "edge", "safari");
+
+        private TestNGCucumberRunner cucumberRunner;
+        private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("matrix-");
+        // Scenario and browser combinations started by the data provider, until TestNG asks for their result
+        private final Map<List<Object>, CompletableFuture<Void>> startedScenarios = new ConcurrentHashMap<>();
+
+        /**
+         * Creates the Cucumber runner, with the parameters of the TestNG suite file as Cucumber properties.
+         *
+         * @param context the TestNG context of the test
+         */
+        @BeforeClass(alwaysRun = true)
+        public void setUpClass(ITestContext context) {
+                cucumberRunner = new TestNGCucumberRunner(getClass(), context.getCurrentXmlTest()::getParameter);
+        }
+
+        /**
+         * Returns every scenario once per browser of the matrix, and starts them. The browsers of a scenario are started
+         * one after the other, so every browser has scenarios to run from the start of the run.
+         *
+         * @return the scenario, feature and browser of every combination
+         */
+        @DataProvider
+        public Object[][] browserScenarios() {
+                if (cucumberRunner == null) {
+                        return new Object[0][0];
+                }
+                List<String> browsers = getMatrixBrowsers();
+                Object[][] scenarios = cucumberRunner.provideScenarios();
+                Object[][] combinations = new Object[scenarios.length * browsers.size()][];
+                WebDriverSessionPool.setIdleSessionsShared(true);
+                int index = 0;
+                for (Object[] scenario : scenarios) {
+                        PickleWrapper pickleWrapper = (PickleWrapper) scenario[0];
+                        FeatureWrapper featureWrapper = (FeatureWrapper) scenario[1];
+                        for (String browser : browsers) {
+                                combinations[index++] = new Object[]{pickleWrapper, featureWrapper, browser};
+                                startedScenarios.put(List.of(pickleWrapper, browser), start(pickleWrapper, browser));
+                        }
+                }
+                LOGGER.info("Started " + scenarios.length + " scenario(s) on " + browsers.size() + " browser(s) " + browsers);
+                return combinations;
+        }
+
+        /**
+         * Waits for the result of the scenario in the browser, started by the data provider. A retried scenario is started
+         * again in the same browser.
+         *
+         * @param pickleWrapper the scenario
+         * @param featureWrapper the feature of the scenario
+         * @param browser the browser of the scenario
+         */
+        @Test(groups = "cucumber", description = "Runs Cucumber Scenarios per browser", dataProvider = "browserScenarios")
+        public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper, String browser) {
+                CompletableFuture<Void> result = startedScenarios.remove(List.of(pickleWrapper, browser));
+                if (result == null) {
+                        result = start(pickleWrapper, browser);
+                }
+                try {
+                        result.join();
+                } catch (CompletionException e) {
+                        if (e.getCause() instanceof RuntimeException runtimeException) {
+                                throw runtimeException;
+                        }
+                        if (e.getCause() instanceof Error error) {
+                                throw error;
+                        }
+                        throw e;
+                }
+        }
+
+        /**
+         * Stops the scenario threads and finishes the Cucumber run, so the plugins write their reports.
+         */
+        @AfterClass(alwaysRun = true)
+        public void tearDownClass() {
+                executor.shutdownNow();
+                WebDriverSessionPool.setIdleSessionsShared(false);
+                if (cucumberRunner != null) {
+                        cucumberRunner.finish();
+                }
+        }
+
+        /**
+         * Starts the scenario on its own thread, with the browser selected for the thread. After an infrastructure failure,
+         * the session released by the scenario is discarded, so a retry gets a new session.
+         *
+         * @param pickleWrapper the scenario
+         * @param browser the browser of the scenario
+         * @return the result of the scenario
+         */
+        private CompletableFuture<Void> start(PickleWrapper pickleWrapper, String browser) {
+                CompletableFuture<Void> result = new CompletableFuture<>();
+                executor.execute(() -> {
+                        BrowserSelection.select(browser);
+                        try {
+                                cucumberRunner.runScenario(pickleWrapper.getPickle());
+                                result.complete(null);
+                        } catch (Throwable e) {
+                                if (FailureCategory.of(e) == FailureCategory.INFRASTRUCTURE) {
+                                        WebDriverSessionPool.discardIdleSession();
+                                }
+                                result.completeExceptionally(e);
+                        } finally {
+                                BrowserSelection.clear();
+                        }
+                });
+                return result;
+        }
+
+        /**
+         * Reads the browsers of the matrix from 'matrix.browsers' (system property or config properties file), a comma
+         * separated list, e.g. 'chrome,firefox,edge'.
+         *
+         * @return the browsers of the matrix, in lower case
+         */
+        private static List<String> getMatrixBrowsers() {
+                PropertiesManager propertiesManager = Hooks.loadConfig();
+                String matrixBrowsers = System.getProperty("matrix.browsers", propertiesManager.getProperty("matrix.browsers", "chrome"));
+                String gridUrl = System.getProperty("grid.url", propertiesManager.getProperty("grid.url", ""));
+                List<String> browsers = Arrays.stream(matrixBrowsers.split(","))
+                        .map(browser -> browser.trim().toLowerCase())
+                        .filter(browser -> !browser.isEmpty())
+                        .distinct()
+                        .toList();
+                if (browsers.isEmpty()) {
+                        throw new IllegalArgumentException("No browser configured in 'matrix.browsers'");
+                }
+                for (String browser : browsers) {
+                        if (!SUPPORTED_BROWSERS.contains(browser)) {
+                                throw new IllegalArgumentException("Unsupported browser in 'matrix.browsers': " + browser + ", supported are " + SUPPORTED_BROWSERS);
+                        }
+                        if (browser.equals("safari") && gridUrl.isBlank() && !System.getProperty("os.name").toLowerCase().contains("mac")) {
+                                throw new IllegalArgumentException("Safari in 'matrix.browsers' is only supported on macOS or on the Selenium Grid");
+                        }
+                }
+                return browsers;
+        }
+
+}
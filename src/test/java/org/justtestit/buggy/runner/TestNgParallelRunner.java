@@ -17,9 +17,10 @@ import org.testng.annotations.DataProvider;
         publish = false,
         tags="@regression",
         plugin = {"pretty",
-                "html:target/cucumber-reports.html",
-                "json:target/cucumber.json",
-                "junit:target/junit-cucumber-results.xml"
+                "org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/cucumber-results.ndjson",
+                "junit:target/junit-cucumber-results.xml",
+                "org.justtestit.buggy.plugin.FailedScenarioIndexPlugin:target/rerun.txt",
+                "org.justtestit.buggy.plugin.RunDashboardPlugin:8090"
         }
 )
 public class TestNgParallelRunner extends AbstractTestNGCucumberTests {
@@ -0,0 +1,51 @@
+package org.justtestit.buggy.runner;
+
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.CucumberOptions;
+import org.justtestit.buggy.report.ScenarioResultMerger;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * This class is used to run again, with TestNG in parallel mode, the scenarios that failed in the previous run of the
+ * TestNgRunner or TestNgParallelRunner, as listed in 'target/rerun.txt'.
+ *
+ * The rerun writes its own reports under 'target/rerun' and its own failure index, and is then merged into the
+ * 'target/cucumber-results.ndjson' results and 'target/cucumber-reports.html' report of the previous run.
+ */
+@CucumberOptions(
+        features = "@target/rerun.txt",
+        glue = {"org.justtestit.buggy.steps"},
+        monochrome = true,
+        dryRun = false,
+        publish = false,
+        plugin = {"pretty",
+                "org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/rerun/cucumber-results.ndjson",
+                "junit:target/rerun/junit-cucumber-results.xml",
+                "org.justtestit.buggy.plugin.FailedScenarioIndexPlugin:target/rerun.txt"
+        }
+)
+public class TestNgRerunRunner extends AbstractTestNGCucumberTests {
+
+        @Override
+        @DataProvider(parallel = true)
+        public Object[][] scenarios() {
+                return super.scenarios();
+        }
+
+        @Override
+        @AfterClass(alwaysRun = true)
+        public void tearDownClass() {
+                super.tearDownClass();
+                try {
+                        ScenarioResultMerger.mergeResults(Paths.get("target/cucumber-results.ndjson"), Paths.get("target/rerun/cucumber-results.ndjson"));
+                } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                }
+        }
+
+}
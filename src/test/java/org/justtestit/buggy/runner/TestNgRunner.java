@@ -16,9 +16,9 @@ import io.cucumber.testng.CucumberOptions;
         publish = false,
         tags="@regression",
         plugin = {"pretty",
-                "html:target/cucumber-reports.html",
-                "json:target/cucumber.json",
-                "junit:target/junit-cucumber-results.xml"
+                "org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/cucumber-results.ndjson",
+                "junit:target/junit-cucumber-results.xml",
+                "org.justtestit.buggy.plugin.FailedScenarioIndexPlugin:target/rerun.txt"
         }
 )
 public class TestNgRunner extends AbstractTestNGCucumberTests {
@@ -0,0 +1,124 @@
+package org.justtestit.buggy.runner;
+
+import commons.concurrent.VirtualThreads;
+import commons.web.WebDriverSessionPool;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.justtestit.buggy.listener.FailureCategory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * This class is used to configure Cucumber options and run the test(s) on virtual threads (Java 21 or higher, otherwise
+ * on a platform thread per scenario).
+ *
+ * All the scenarios are started at once, each on its own thread, and wait for a free browser slot: the concurrency is
+ * limited by 'browser.capacity' instead of the TestNG data-provider-thread-count. TestNG still reports every scenario
+ * (and retries it) on its own thread, by waiting for the result of the scenario.
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"org.justtestit.buggy.steps"},
+        monochrome = true,
+        dryRun = false,
+        publish = false,
+        tags="@regression",
+        plugin = {"pretty",
+                "org.justtestit.buggy.plugin.ScenarioResultStreamPlugin:target/cucumber-results.ndjson",
+                "junit:target/junit-cucumber-results.xml",
+                "org.justtestit.buggy.plugin.FailedScenarioIndexPlugin:target/rerun.txt",
+                "org.justtestit.buggy.plugin.RunDashboardPlugin:8090"
+        }
+)
+public class TestNgVirtualThreadRunner extends AbstractTestNGCucumberTests {
+
+        //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+        private static final Logger LOGGER = LoggerFactory.getLogger(TestNgVirtualThreadRunner.class);
+
+        private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("scenario-");
+        // Scenarios started by the data provider, until TestNG asks for their result
+        private final Map<PickleWrapper, CompletableFuture<Void>> startedScenarios = new ConcurrentHashMap<>();
+
+        @Override
+        @DataProvider
+        public Object[][] scenarios() {
+                Object[][] scenarios = super.scenarios();
+                WebDriverSessionPool.setIdleSessionsShared(true);
+                for (Object[] scenario : scenarios) {
+                        PickleWrapper pickleWrapper = (PickleWrapper) scenario[0];
+                        startedScenarios.put(pickleWrapper, start(pickleWrapper, (FeatureWrapper) scenario[1]));
+                }
+                LOGGER.info("Started " + scenarios.length + " scenario(s) on " + (VirtualThreads.isSupported() ? "virtual" : "platform") + " threads");
+                return scenarios;
+        }
+
+        /**
+         * Waits for the result of the scenario started by the data provider. A retried scenario is started again.
+         *
+         * @param pickleWrapper the scenario
+         * @param featureWrapper the feature of the scenario
+         */
+        @Override
+        @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+        public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+                CompletableFuture<Void> result = startedScenarios.remove(pickleWrapper);
+                if (result == null) {
+                        result = start(pickleWrapper, featureWrapper);
+                }
+                try {
+                        result.join();
+                } catch (CompletionException e) {
+                        if (e.getCause() instanceof RuntimeException runtimeException) {
+                                throw runtimeException;
+                        }
+                        if (e.getCause() instanceof Error error) {
+                                throw error;
+                        }
+                        throw e;
+                }
+        }
+
+        @Override
+        @AfterClass(alwaysRun = true)
+        public void tearDownClass() {
+                executor.shutdownNow();
+                WebDriverSessionPool.setIdleSessionsShared(false);
+                super.tearDownClass();
+        }
+
+        /**
+         * Starts the scenario on its own thread. After an infrastructure failure, the session released by the scenario
+         * is discarded, so a retry gets a new session.
+         *
+         * @param pickleWrapper the scenario
+         * @param featureWrapper the feature of the scenario
+         * @return the result of the scenario
+         */
+        private CompletableFuture<Void> start(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+                CompletableFuture<Void> result = new CompletableFuture<>();
+                executor.execute(() -> {
+                        try {
+                                super.runScenario(pickleWrapper, featureWrapper);
+                                result.complete(null);
+                        } catch (Throwable e) {
+                                if (FailureCategory.of(e) == FailureCategory.INFRASTRUCTURE) {
+                                        WebDriverSessionPool.discardIdleSession();
+                                }
+                                result.completeExceptionally(e);
+                        }
+                });
+                return result;
+        }
+
+}
@@ -0,0 +1,244 @@
+package org.justtestit.buggy.selection;
+
+import org.justtestit.buggy.selection.ScenarioDependencyIndex.ScenarioEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * This class selects the scenarios affected by the changes between a git base revision and the working tree, using the
+ * ScenarioDependencyIndex, and writes them to 'target/changed-scenarios.txt' in Cucumber rerun format ('uri:line:line').
+ *
+ * - A changed scenario (or example row) in a feature file selects that scenario; a changed feature header or background
+ *   selects every scenario of the feature file.
+ * - A changed step definition, page object method or locator selects the scenarios that use it, directly or indirectly.
+ * - Any other change under 'src' (commons, hooks, runners, config), 'pom.xml' or a TestNG suite file selects all scenarios.
+ *
+ * Usage (the base revision defaults to HEAD, i.e. uncommitted changes only):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.justtestit.buggy.selection.ChangedScenarioSelector -Dexec.args=origin/main
+ * mvn clean verify -Dcucumber.features=@target/changed-scenarios.txt
+ * </pre>
+ */
+public class ChangedScenarioSelector {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangedScenarioSelector.class);
+
+    private static final Path FEATURES_DIR = Paths.get("src/test/resources/features");
+    private static final Path STEPS_DIR = Paths.get("src/test/java/org/justtestit/buggy/steps");
+    private static final Path PAGES_DIR = Paths.get("src/test/java/org/justtestit/buggy/pages");
+    private static final Path SELECTION_DIR = Paths.get("src/test/java/org/justtestit/buggy/selection");
+    private static final String GLUE_PACKAGE = "org.justtestit.buggy.steps";
+    private static final Path OUTPUT_FILE = Paths.get("target/changed-scenarios.txt");
+    private static final Pattern DIFF_OLD_FILE = Pattern.compile("^--- (?:a/)?(.+)$");
+    private static final Pattern DIFF_FILE = Pattern.compile("^\\+\\+\\+ (?:b/)?(.+)$");
+    private static final Pattern DIFF_HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@.*");
+
+    private final ScenarioDependencyIndex index;
+    private boolean allScenariosSelected;
+    private final Set<ScenarioEntry> selectedScenarios = new LinkedHashSet<>();
+    private final Set<String> changedDependencies = new LinkedHashSet<>();
+    private final Set<String> changedClasses = new LinkedHashSet<>();
+
+    /**
+     * Constructor to initialize the ChangedScenarioSelector class.
+     *
+     * @param index the scenario dependency index
+     */
+    public ChangedScenarioSelector(ScenarioDependencyIndex index) {
+        this.index = index;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String baseRevision = args.length > 0 ? args[0] : "HEAD";
+        ScenarioDependencyIndex index = ScenarioDependencyIndex.build(FEATURES_DIR, STEPS_DIR, PAGES_DIR, GLUE_PACKAGE);
+        ChangedScenarioSelector selector = new ChangedScenarioSelector(index);
+        selector.select(readChangedLines(baseRevision));
+        selector.writeRerunFile(OUTPUT_FILE);
+    }
+
+    /**
+     * Selects the scenarios affected by the changed lines.
+     *
+     * A deleted file (no longer in the working tree) affects all scenarios, because the index of the working tree
+     * doesn't know what used it.
+     *
+     * @param changedLines the changed (added or modified) line numbers per file path relative to the project directory
+     */
+    public void select(Map<String, Set<Integer>> changedLines) throws IOException {
+        for (Map.Entry<String, Set<Integer>> change : changedLines.entrySet()) {
+            Path path = Paths.get(change.getKey());
+            String fileName = path.getFileName().toString();
+            String className = fileName.replaceFirst("\\.java$", "");
+            if (path.startsWith(SELECTION_DIR)) {
+                LOGGER.info("Ignoring change in scenario selection tool: " + path);
+            } else if (!Files.exists(path)) {
+                if (path.startsWith("src") || fileName.equals("pom.xml") || fileName.matches("testng.*\\.xml")) {
+                    LOGGER.info("Deletion of '" + path + "' affects all scenarios");
+                    allScenariosSelected = true;
+                }
+            } else if (path.startsWith(FEATURES_DIR) && fileName.endsWith(".feature")) {
+                selectChangedScenarios(path, change.getValue());
+            } else if (path.startsWith(PAGES_DIR) && index.getPageSource(className).isPresent()) {
+                addChangedMembers(index.getPageSource(className).get(), change.getValue());
+            } else if (path.startsWith(STEPS_DIR) && index.hasStepDefinitions(className)) {
+                addChangedMembers(index.getStepSource(className).get(), change.getValue());
+            } else if (path.startsWith("src") || fileName.equals("pom.xml") || fileName.matches("testng.*\\.xml")) {
+                LOGGER.info("Change in '" + path + "' affects all scenarios");
+                allScenariosSelected = true;
+            }
+        }
+
+        for (ScenarioEntry scenario : index.getScenarios()) {
+            for (String dependency : index.getDependencies(scenario)) {
+                String dependencyClass = dependency.substring(0, dependency.indexOf('#'));
+                if (changedDependencies.contains(dependency) || changedClasses.contains(dependencyClass)) {
+                    LOGGER.info("Scenario '" + scenario.name() + "' selected because of changed dependency: " + dependency);
+                    selectedScenarios.add(scenario);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the selected scenarios in Cucumber rerun format, one feature file per line. If all scenarios are selected,
+     * the features directory is written instead.
+     *
+     * @param outputFile the file to write
+     */
+    public void writeRerunFile(Path outputFile) throws IOException {
+        Files.createDirectories(outputFile.getParent());
+        List<String> lines = new ArrayList<>();
+        if (allScenariosSelected) {
+            lines.add(FEATURES_DIR.toString().replace('\\', '/'));
+        } else {
+            Map<String, Set<Integer>> linesByUri = new TreeMap<>();
+            selectedScenarios.forEach(scenario -> linesByUri.computeIfAbsent(scenario.uri(), uri -> new TreeSet<>()).add(scenario.line()));
+            linesByUri.forEach((uri, scenarioLines) -> lines.add(uri + ":" + scenarioLines.stream().map(String::valueOf).collect(Collectors.joining(":"))));
+        }
+        Files.write(outputFile, lines, StandardCharsets.UTF_8);
+        LOGGER.info((allScenariosSelected ? "All scenarios" : selectedScenarios.size() + " scenario(s)") + " selected, written to: " + outputFile);
+        LOGGER.info("Run with: mvn clean verify -Dcucumber.features=@" + outputFile.toString().replace('\\', '/'));
+    }
+
+    private void selectChangedScenarios(Path featureFile, Set<Integer> changedLines) {
+        String uri = featureFile.toString().replace('\\', '/');
+        List<ScenarioEntry> featureScenarios = index.getScenarios().stream().filter(scenario -> scenario.uri().equals(uri)).collect(Collectors.toList());
+        for (int changedLine : changedLines) {
+            Optional<ScenarioEntry> changedScenario = featureScenarios.stream()
+                    .filter(scenario -> changedLine >= scenario.line() && changedLine <= scenario.endLine())
+                    .findFirst();
+            if (changedScenario.isPresent()) {
+                selectedScenarios.add(changedScenario.get());
+            } else {
+                LOGGER.info("Change in header or background of '" + uri + "' at line " + changedLine + " affects all its scenarios");
+                selectedScenarios.addAll(featureScenarios);
+                return;
+            }
+        }
+    }
+
+    private void addChangedMembers(JavaSourceMembers source, Set<Integer> changedLines) {
+        for (int changedLine : changedLines) {
+            Optional<JavaSourceMembers.Member> member = source.getMemberAt(changedLine);
+            if (member.isPresent()) {
+                changedDependencies.add(source.getClassName() + "#" + member.get().name());
+            } else {
+                LOGGER.info("Change outside of any member of '" + source.getClassName() + "' at line " + changedLine + " affects all its users");
+                changedClasses.add(source.getClassName());
+            }
+        }
+    }
+
+    /**
+     * Reads the changed line numbers of every file changed between the base revision and the working tree, with
+     * 'git diff --unified=0'. Untracked files are treated as entirely changed. A deleted file is listed with its old
+     * path and no changed lines.
+     *
+     * @param baseRevision the git base revision
+     * @return the changed line numbers per file path
+     */
+    private static Map<String, Set<Integer>> readChangedLines(String baseRevision) throws IOException, InterruptedException {
+        Map<String, Set<Integer>> changedLines = new LinkedHashMap<>();
+        String currentFile = null;
+        String oldFile = null;
+        // The '---'/'+++' file lines are only read in the header of a file diff, a changed line may start with them too
+        boolean inFileHeader = false;
+        for (String line : runGit("diff", "--unified=0", "--no-color", baseRevision, "--")) {
+            Matcher oldFileMatcher = DIFF_OLD_FILE.matcher(line);
+            Matcher fileMatcher = DIFF_FILE.matcher(line);
+            Matcher hunkMatcher = DIFF_HUNK.matcher(line);
+            if (line.startsWith("diff --git ")) {
+                inFileHeader = true;
+                currentFile = null;
+                oldFile = null;
+            } else if (inFileHeader && oldFileMatcher.matches()) {
+                oldFile = "/dev/null".equals(oldFileMatcher.group(1)) ? null : oldFileMatcher.group(1);
+            } else if (inFileHeader && line.equals("+++ /dev/null")) {
+                if (oldFile != null) {
+                    changedLines.computeIfAbsent(oldFile, file -> new TreeSet<>());
+                }
+                currentFile = null;
+            } else if (inFileHeader && fileMatcher.matches()) {
+                currentFile = fileMatcher.group(1);
+                changedLines.computeIfAbsent(currentFile, file -> new TreeSet<>());
+            } else if (hunkMatcher.matches()) {
+                inFileHeader = false;
+                if (currentFile == null) {
+                    continue;
+                }
+                int start = Integer.parseInt(hunkMatcher.group(1));
+                int count = hunkMatcher.group(2) == null ? 1 : Integer.parseInt(hunkMatcher.group(2));
+                // A pure deletion has a count of 0: the lines around the deletion point are marked as changed
+                int end = count == 0 ? start + 1 : start + count - 1;
+                for (int changedLine = Math.max(1, start); changedLine <= end; changedLine++) {
+                    changedLines.get(currentFile).add(changedLine);
+                }
+            }
+        }
+        for (String untrackedFile : runGit("ls-files", "--others", "--exclude-standard")) {
+            Set<Integer> allLines = new TreeSet<>();
+            for (int lineNumber = 1; lineNumber <= Math.max(1, Files.readAllLines(Paths.get(untrackedFile)).size()); lineNumber++) {
+                allLines.add(lineNumber);
+            }
+            changedLines.put(untrackedFile, allLines);
+        }
+        LOGGER.info("Files changed since '" + baseRevision + "': " + changedLines.keySet());
+        return changedLines;
+    }
+
+    private static List<String> runGit(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        if (process.waitFor() != 0) {
+            throw new IOException("Command failed: " + String.join(" ", command) + System.lineSeparator() + String.join(System.lineSeparator(), output));
+        }
+        return output;
+    }
+}
@@ -0,0 +1,190 @@
+package org.justtestit.buggy.selection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class is a light-weight source model of a page object or step definition class: the line range and body of every
+ * field and method declared in the class, and the other members each member refers to.
+ * It is not a Java parser; it relies on the formatting conventions used by the classes of this project.
+ */
+public class JavaSourceMembers {
+
+    private static final Pattern FIELD_DECLARATION = Pattern.compile("^\\s*(?:private|protected|public)\\s[^(){}]*?\\b(\\w+)\\s*(?:=.*)?;\\s*$");
+    private static final Pattern METHOD_DECLARATION = Pattern.compile("^\\s*(?:private|protected|public)\\s[^=;]*?\\b(\\w+)\\s*\\([^;]*$");
+    private static final Pattern STRING_OR_CHAR_LITERAL = Pattern.compile("\"(?:\\\\.|[^\"\\\\])*\"|'(?:\\\\.|[^'\\\\])*'");
+    private static final Pattern IDENTIFIER = Pattern.compile("\\b[A-Za-z_]\\w*\\b");
+
+    private final String className;
+    private final Map<String, Member> members = new LinkedHashMap<>();
+
+    /**
+     * A field or method of the class.
+     *
+     * @param name the field or method name (overloaded methods are merged)
+     * @param startLine the first line of the member including its Javadoc and annotations (1-based)
+     * @param endLine the last line of the member (1-based)
+     * @param body the source of the member
+     */
+    public record Member(String name, int startLine, int endLine, String body) {
+    }
+
+    private JavaSourceMembers(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Parses the members of the Java source file.
+     *
+     * @param sourceFile the Java source file
+     * @return the parsed source model
+     * @throws IOException if the file can't be read
+     */
+    public static JavaSourceMembers parse(Path sourceFile) throws IOException {
+        String fileName = sourceFile.getFileName().toString();
+        JavaSourceMembers sourceMembers = new JavaSourceMembers(fileName.substring(0, fileName.length() - ".java".length()));
+        List<String> lines = Files.readAllLines(sourceFile);
+        int pendingStart = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.startsWith("/**") || line.startsWith("@")) {
+                pendingStart = pendingStart < 0 ? i : pendingStart;
+                if (!line.startsWith("@")) {
+                    while (i < lines.size() - 1 && !lines.get(i).contains("*/")) {
+                        i++;
+                    }
+                }
+                continue;
+            }
+            int start = pendingStart < 0 ? i : pendingStart;
+            Matcher fieldMatcher = FIELD_DECLARATION.matcher(lines.get(i));
+            Matcher methodMatcher = METHOD_DECLARATION.matcher(lines.get(i));
+            if (!line.contains(" class ") && fieldMatcher.matches()) {
+                sourceMembers.add(fieldMatcher.group(1), start, i, lines);
+                pendingStart = -1;
+            } else if (!line.contains(" class ") && methodMatcher.find()) {
+                int end = findClosingBraceLine(lines, i);
+                sourceMembers.add(methodMatcher.group(1), start, end, lines);
+                i = end;
+                pendingStart = -1;
+            } else if (!line.isEmpty() && !line.startsWith("//") && !line.startsWith("*")) {
+                pendingStart = -1;
+            }
+        }
+        return sourceMembers;
+    }
+
+    /**
+     * Returns the simple name of the class.
+     *
+     * @return the class name
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the member declared at the given line.
+     *
+     * @param line the line number (1-based)
+     * @return the member, or an empty Optional if the line is outside any member (imports, class header, ...)
+     */
+    public Optional<Member> getMemberAt(int line) {
+        return members.values().stream().filter(member -> line >= member.startLine() && line <= member.endLine()).findFirst();
+    }
+
+    /**
+     * Returns the member with the given name.
+     *
+     * @param name the field or method name
+     * @return the member, or an empty Optional if the class has no such member
+     */
+    public Optional<Member> getMember(String name) {
+        return Optional.ofNullable(members.get(name));
+    }
+
+    /**
+     * Returns the names of all members of the class.
+     *
+     * @return the member names
+     */
+    public Set<String> getMemberNames() {
+        return Collections.unmodifiableSet(members.keySet());
+    }
+
+    /**
+     * Returns the given member and every member of the same class it refers to, directly or through other members.
+     *
+     * @param name the field or method name
+     * @return the names of the member and the members it depends on
+     */
+    public Set<String> getMemberClosure(String name) {
+        Set<String> closure = new HashSet<>();
+        List<String> pending = new ArrayList<>(List.of(name));
+        while (!pending.isEmpty()) {
+            String current = pending.remove(pending.size() - 1);
+            Member member = members.get(current);
+            if (member == null || !closure.add(current)) {
+                continue;
+            }
+            Matcher identifierMatcher = IDENTIFIER.matcher(STRING_OR_CHAR_LITERAL.matcher(member.body()).replaceAll("\"\""));
+            while (identifierMatcher.find()) {
+                if (members.containsKey(identifierMatcher.group()) && !closure.contains(identifierMatcher.group())) {
+                    pending.add(identifierMatcher.group());
+                }
+            }
+        }
+        return closure;
+    }
+
+    private void add(String name, int startIndex, int endIndex, List<String> lines) {
+        String body = String.join("\n", lines.subList(startIndex, endIndex + 1));
+        Member existing = members.get(name);
+        if (existing != null) {
+            // Overloaded method: merge both declarations into one member
+            body = existing.body() + "\n" + body;
+            startIndex = Math.min(startIndex, existing.startLine() - 1);
+            endIndex = Math.max(endIndex, existing.endLine() - 1);
+        }
+        members.put(name, new Member(name, startIndex + 1, endIndex + 1, body));
+    }
+
+    private static int findClosingBraceLine(List<String> lines, int declarationIndex) {
+        int depth = 0;
+        boolean opened = false;
+        for (int i = declarationIndex; i < lines.size(); i++) {
+            String code = STRING_OR_CHAR_LITERAL.matcher(lines.get(i)).replaceAll("\"\"");
+            int commentStart = code.indexOf("//");
+            if (commentStart >= 0) {
+                code = code.substring(0, commentStart);
+            }
+            for (char character : code.toCharArray()) {
+                if (character == '{') {
+                    depth++;
+                    opened = true;
+                } else if (character == '}') {
+                    depth--;
+                }
+            }
+            if (opened && depth <= 0) {
+                return i;
+            }
+            if (!opened && code.trim().endsWith(";")) {
+                // Abstract or interface method without body
+                return i;
+            }
+        }
+        return lines.size() - 1;
+    }
+}
@@ -0,0 +1,306 @@
+package org.justtestit.buggy.selection;
+
+import io.cucumber.cucumberexpressions.Expression;
+import io.cucumber.cucumberexpressions.ExpressionFactory;
+import io.cucumber.cucumberexpressions.ParameterTypeRegistry;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.But;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class indexes, for every scenario of the feature files, the step definitions it uses, and for every step definition
+ * the page object methods and locators it calls.
+ *
+ * Dependencies are expressed as 'ClassName#memberName' strings, e.g. 'LoginSteps#i_am_at_Buggy_login_page',
+ * 'HomePage#login' or 'HomePage#loginButton'. Step definitions are read by reflection from the glue classes; page object
+ * calls and locators are read from the Java sources of the step definition and page object classes.
+ */
+public class ScenarioDependencyIndex {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioDependencyIndex.class);
+
+    private static final Pattern PAGE_METHOD_CALL = Pattern.compile("getPage\\((\\w+Page)\\.class\\)\\s*\\.\\s*(\\w+)\\s*\\(");
+    private static final List<Class<? extends Annotation>> STEP_ANNOTATIONS = List.of(Given.class, When.class, Then.class, And.class, But.class);
+
+    /**
+     * A scenario (or scenario outline) of a feature file.
+     *
+     * @param uri the feature file path
+     * @param line the line of the scenario keyword (1-based)
+     * @param endLine the last line belonging to the scenario, including its examples (1-based)
+     * @param name the scenario name
+     * @param stepTexts the texts of the steps run by the scenario, including background steps and all example rows
+     */
+    public record ScenarioEntry(String uri, int line, int endLine, String name, Set<String> stepTexts) {
+    }
+
+    /**
+     * A step definition method of a glue class.
+     *
+     * @param className the simple name of the step definition class
+     * @param methodName the step definition method name
+     * @param expression the Cucumber expression or regular expression of the step
+     */
+    public record StepDefinitionEntry(String className, String methodName, String expression) {
+    }
+
+    private final List<ScenarioEntry> scenarios;
+    private final List<StepDefinitionEntry> stepDefinitions;
+    private final Map<String, JavaSourceMembers> stepSources;
+    private final Map<String, JavaSourceMembers> pageSources;
+    private final Map<StepDefinitionEntry, Set<String>> stepDefinitionDependencies = new HashMap<>();
+    private final Map<String, Optional<StepDefinitionEntry>> matchedSteps = new HashMap<>();
+    private final Map<StepDefinitionEntry, Expression> expressions = new HashMap<>();
+
+    private ScenarioDependencyIndex(List<ScenarioEntry> scenarios, List<StepDefinitionEntry> stepDefinitions,
+                                    Map<String, JavaSourceMembers> stepSources, Map<String, JavaSourceMembers> pageSources) {
+        this.scenarios = scenarios;
+        this.stepDefinitions = stepDefinitions;
+        this.stepSources = stepSources;
+        this.pageSources = pageSources;
+        ExpressionFactory expressionFactory = new ExpressionFactory(new ParameterTypeRegistry(Locale.ENGLISH));
+        for (StepDefinitionEntry stepDefinition : stepDefinitions) {
+            expressions.put(stepDefinition, expressionFactory.createExpression(stepDefinition.expression()));
+        }
+    }
+
+    /**
+     * Builds the index.
+     *
+     * @param featuresDir the directory of the feature files
+     * @param stepsDir the source directory of the step definition classes (the glue package)
+     * @param pagesDir the source directory of the page object classes
+     * @param gluePackage the package name of the step definition classes
+     * @return the index
+     * @throws IOException if a feature or source file can't be read
+     */
+    public static ScenarioDependencyIndex build(Path featuresDir, Path stepsDir, Path pagesDir, String gluePackage) throws IOException {
+        LOGGER.info("Building scenario dependency index from: " + featuresDir);
+        List<ScenarioEntry> scenarios = new ArrayList<>();
+        for (Path featureFile : listFiles(featuresDir, ".feature")) {
+            scenarios.addAll(parseFeature(featureFile));
+        }
+
+        Map<String, JavaSourceMembers> stepSources = parseSources(stepsDir);
+        Map<String, JavaSourceMembers> pageSources = parseSources(pagesDir);
+        List<StepDefinitionEntry> stepDefinitions = new ArrayList<>();
+        for (String className : stepSources.keySet()) {
+            stepDefinitions.addAll(readStepDefinitions(gluePackage + "." + className));
+        }
+        LOGGER.info("Indexed " + scenarios.size() + " scenario(s), " + stepDefinitions.size() + " step definition(s) and " + pageSources.size() + " page object(s)");
+        return new ScenarioDependencyIndex(scenarios, stepDefinitions, stepSources, pageSources);
+    }
+
+    /**
+     * Returns all indexed scenarios.
+     *
+     * @return the scenarios
+     */
+    public List<ScenarioEntry> getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Returns the source model of a step definition class.
+     *
+     * @param className the simple class name
+     * @return the source model, or an empty Optional if the class is not a step definition class
+     */
+    public Optional<JavaSourceMembers> getStepSource(String className) {
+        return Optional.ofNullable(stepSources.get(className));
+    }
+
+    /**
+     * Returns the source model of a page object class.
+     *
+     * @param className the simple class name
+     * @return the source model, or an empty Optional if the class is not a page object class
+     */
+    public Optional<JavaSourceMembers> getPageSource(String className) {
+        return Optional.ofNullable(pageSources.get(className));
+    }
+
+    /**
+     * Returns whether the class declares at least one step definition.
+     *
+     * @param className the simple class name
+     * @return true if the class declares step definitions, false otherwise
+     */
+    public boolean hasStepDefinitions(String className) {
+        return stepDefinitions.stream().anyMatch(stepDefinition -> stepDefinition.className().equals(className));
+    }
+
+    /**
+     * Returns the step definition and page object dependencies of the scenario, as 'ClassName#memberName' strings.
+     *
+     * @param scenario the scenario
+     * @return the dependencies of the scenario
+     */
+    public Set<String> getDependencies(ScenarioEntry scenario) {
+        Set<String> dependencies = new LinkedHashSet<>();
+        for (String stepText : scenario.stepTexts()) {
+            findStepDefinition(stepText).ifPresent(stepDefinition -> dependencies.addAll(getDependencies(stepDefinition)));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Returns the step definition matching the step text.
+     *
+     * @param stepText the text of a step
+     * @return the first matching step definition, or an empty Optional if the step is undefined
+     */
+    public Optional<StepDefinitionEntry> findStepDefinition(String stepText) {
+        return matchedSteps.computeIfAbsent(stepText, text -> stepDefinitions.stream()
+                .filter(stepDefinition -> expressions.get(stepDefinition).match(text) != null)
+                .findFirst());
+    }
+
+    /**
+     * Returns the step definition method, the members of its class it uses, and the page object methods and locators
+     * it calls, directly or through other members.
+     *
+     * @param stepDefinition the step definition
+     * @return the dependencies of the step definition
+     */
+    private Set<String> getDependencies(StepDefinitionEntry stepDefinition) {
+        return stepDefinitionDependencies.computeIfAbsent(stepDefinition, entry -> {
+            Set<String> dependencies = new LinkedHashSet<>();
+            JavaSourceMembers stepSource = stepSources.get(entry.className());
+            for (String memberName : stepSource.getMemberClosure(entry.methodName())) {
+                dependencies.add(entry.className() + "#" + memberName);
+                Matcher pageCallMatcher = PAGE_METHOD_CALL.matcher(stepSource.getMember(memberName).orElseThrow().body());
+                while (pageCallMatcher.find()) {
+                    JavaSourceMembers pageSource = pageSources.get(pageCallMatcher.group(1));
+                    if (pageSource != null) {
+                        pageSource.getMemberClosure(pageCallMatcher.group(2))
+                                .forEach(pageMember -> dependencies.add(pageSource.getClassName() + "#" + pageMember));
+                    }
+                }
+            }
+            return dependencies;
+        });
+    }
+
+    /**
+     * Parses the scenarios of the feature file with their line ranges and step texts.
+     *
+     * @param featureFile the feature file
+     * @return the scenarios of the feature file
+     * @throws IOException if the file can't be read
+     */
+    private static List<ScenarioEntry> parseFeature(Path featureFile) throws IOException {
+        String uri = featureFile.toString().replace('\\', '/');
+        List<Envelope> envelopes;
+        try (Stream<Envelope> envelopeStream = GherkinParser.builder().includeSource(false).build().parse(featureFile)) {
+            envelopes = envelopeStream.collect(Collectors.toList());
+        }
+
+        List<Scenario> scenarioNodes = new ArrayList<>();
+        List<Integer> childLines = new ArrayList<>();
+        envelopes.stream().map(Envelope::getGherkinDocument).flatMap(Optional::stream)
+                .map(GherkinDocument::getFeature).flatMap(Optional::stream)
+                .forEach(feature -> {
+                    for (FeatureChild child : feature.getChildren()) {
+                        child.getBackground().ifPresent(background -> childLines.add(background.getLocation().getLine().intValue()));
+                        child.getScenario().ifPresent(scenarioNodes::add);
+                        child.getRule().ifPresent(rule -> {
+                            childLines.add(rule.getLocation().getLine().intValue());
+                            for (RuleChild ruleChild : rule.getChildren()) {
+                                ruleChild.getBackground().ifPresent(background -> childLines.add(background.getLocation().getLine().intValue()));
+                                ruleChild.getScenario().ifPresent(scenarioNodes::add);
+                            }
+                        });
+                    }
+                });
+        scenarioNodes.forEach(scenario -> childLines.add(scenario.getLocation().getLine().intValue()));
+        childLines.sort(Comparator.naturalOrder());
+
+        Map<String, Set<String>> stepTextsByScenarioId = new HashMap<>();
+        envelopes.stream().map(Envelope::getPickle).flatMap(Optional::stream).forEach((Pickle pickle) ->
+                stepTextsByScenarioId.computeIfAbsent(pickle.getAstNodeIds().get(0), id -> new LinkedHashSet<>())
+                        .addAll(pickle.getSteps().stream().map(PickleStep::getText).collect(Collectors.toList())));
+
+        Map<String, ScenarioEntry> scenarioEntries = new LinkedHashMap<>();
+        for (Scenario scenario : scenarioNodes) {
+            int line = scenario.getLocation().getLine().intValue();
+            int endLine = childLines.stream().filter(childLine -> childLine > line).findFirst().map(childLine -> childLine - 1).orElse(Integer.MAX_VALUE);
+            scenarioEntries.put(scenario.getId(), new ScenarioEntry(uri, line, endLine, scenario.getName(),
+                    stepTextsByScenarioId.getOrDefault(scenario.getId(), Set.of())));
+        }
+        return new ArrayList<>(scenarioEntries.values());
+    }
+
+    /**
+     * Reads the step definitions of the glue class by reflection.
+     *
+     * @param className the fully qualified class name
+     * @return the step definitions of the class
+     */
+    private static List<StepDefinitionEntry> readStepDefinitions(String className) {
+        List<StepDefinitionEntry> stepDefinitions = new ArrayList<>();
+        try {
+            Class<?> glueClass = Class.forName(className, false, ScenarioDependencyIndex.class.getClassLoader());
+            for (Method method : glueClass.getDeclaredMethods()) {
+                for (Class<? extends Annotation> stepAnnotation : STEP_ANNOTATIONS) {
+                    Annotation annotation = method.getAnnotation(stepAnnotation);
+                    if (annotation != null) {
+                        String expression = (String) stepAnnotation.getMethod("value").invoke(annotation);
+                        stepDefinitions.add(new StepDefinitionEntry(glueClass.getSimpleName(), method.getName(), expression));
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Failed to read step definitions of class: " + className, e);
+        }
+        return stepDefinitions;
+    }
+
+    private static Map<String, JavaSourceMembers> parseSources(Path sourceDir) throws IOException {
+        Map<String, JavaSourceMembers> sources = new LinkedHashMap<>();
+        for (Path sourceFile : listFiles(sourceDir, ".java")) {
+            JavaSourceMembers sourceMembers = JavaSourceMembers.parse(sourceFile);
+            sources.put(sourceMembers.getClassName(), sourceMembers);
+        }
+        return sources;
+    }
+
+    private static List<Path> listFiles(Path dir, String extension) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(path -> path.toString().endsWith(extension)).sorted().collect(Collectors.toList());
+        }
+    }
+}
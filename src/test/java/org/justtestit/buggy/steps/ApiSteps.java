@@ -0,0 +1,115 @@
+package org.justtestit.buggy.steps;
+
+import com.github.javafaker.Faker;
+import commons.web.PageSnapshot;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.justtestit.buggy.api.ApiUser;
+import org.justtestit.buggy.pages.DashboardPage;
+import org.justtestit.buggy.pages.HomePage;
+import org.justtestit.buggy.pages.ProfilePage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.asserts.SoftAssert;
+
+/**
+ * This class contains the implementation of API step definitions that correspond to feature files.
+ * They set up scenario preconditions through the Buggy backend API instead of the user interface, then pass the
+ * session into the browser.
+ * It extends the PageInitializer class to access the page objects, the API and driver.
+ */
+public class ApiSteps extends PageInitializer {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiSteps.class);
+
+    /**
+     * Constructor to initialize the ApiSteps class.
+     *
+     * @param dependencyContainer An instance of the DependencyContainer class
+     */
+    public ApiSteps(DependencyContainer dependencyContainer) {
+        super(dependencyContainer);
+    }
+
+    //********** STEP DEFINITION METHODS **********
+
+    @Given("a new user is registered through the API")
+    public void a_new_user_is_registered_through_the_API() {
+        LOGGER.info("Given a new user is registered through the API");
+        Faker faker = new Faker();
+        ApiUser user = new ApiUser(faker.name().username(), faker.name().firstName(), faker.name().lastName(), "Buggy@" + faker.number().digits(6));
+        getBuggyApi().registerUser(user);
+        getApiSession().setUser(user);
+    }
+
+    @When("the registered user logs in through the API")
+    public void the_registered_user_logs_in_through_the_API() {
+        LOGGER.info("When the registered user logs in through the API");
+        ApiUser user = getApiSession().getUser();
+        getApiSession().setAccessToken(getBuggyApi().login(user.username(), user.password()));
+    }
+
+    @Given("I am logged in to Buggy through the API as the registered user")
+    public void i_am_logged_in_to_Buggy_through_the_API_as_the_registered_user() {
+        LOGGER.info("Given I am logged in to Buggy through the API as the registered user");
+        ApiUser user = getApiSession().getUser();
+        openBuggyLoggedIn(user.username(), user.password());
+    }
+
+    @Given("I am logged in to Buggy through the API with user: {string} and password: {string}")
+    public void i_am_logged_in_to_Buggy_through_the_API_with_user_and_password(String username, String password) {
+        LOGGER.info("Given I am logged in to Buggy through the API with user: {string} and password: {string}");
+        openBuggyLoggedIn(username, password);
+    }
+
+    @Then("the API should return the registered user profile")
+    public void the_API_should_return_the_registered_user_profile() {
+        LOGGER.info("Then the API should return the registered user profile");
+        ApiUser user = getApiSession().getUser();
+        Object firstName = getBuggyApi().getCurrentUser(getApiSession().getAccessToken()).get("firstName");
+        Assert.assertEquals(firstName, user.firstName(), "First name of the current user");
+    }
+
+    @Then("I should see the registered user first name")
+    public void i_should_see_the_registered_user_first_name() {
+        LOGGER.info("Then I should see the registered user first name");
+        String firstName = getApiSession().getUser().firstName();
+        Assert.assertTrue(getPage(DashboardPage.class).isUserFirstNameDisplayed(firstName), "User first name '" + firstName + "' not displayed");
+    }
+
+    @Then("I should see the registered user info under user profile page")
+    public void i_should_see_the_registered_user_info_under_user_profile_page() {
+        LOGGER.info("Then I should see the registered user info under user profile page");
+        ApiUser user = getApiSession().getUser();
+
+        getPage(DashboardPage.class).clickProfileLink();
+        PageSnapshot userInfo = getPage(ProfilePage.class).getUserInfoSnapshot();
+        SoftAssert softAssert = new SoftAssert();
+        softAssert.assertEquals(userInfo.getValue("login"), user.username());
+        softAssert.assertEquals(userInfo.getValue("firstName"), user.firstName());
+        softAssert.assertEquals(userInfo.getValue("lastName"), user.lastName());
+        softAssert.assertAll();
+    }
+
+    /**
+     * Logs in through the API, then opens Buggy in the browser with the access token of the user.
+     *
+     * @param username The username to be used for login
+     * @param password The password to be used for login
+     * @throws IllegalStateException if the API stub is enabled, because the website doesn't accept the tokens of the stub
+     */
+    private void openBuggyLoggedIn(String username, String password) {
+        if (Boolean.parseBoolean(System.getProperty("api.stub", getPropertiesManager().getProperty("api.stub", "false")))) {
+            throw new IllegalStateException("Logging in to Buggy in the browser through the API is not possible with 'api.stub' set to true: the website doesn't accept the access tokens of the API stub");
+        }
+        String accessToken = getBuggyApi().login(username, password);
+        getApiSession().setAccessToken(accessToken);
+        String baseUrl = System.getProperty("base.url", getPropertiesManager().getProperty("base.url"));
+        String tokenStorageKey = getPropertiesManager().getProperty("api.token.storage.key", "token");
+        getPage(HomePage.class).openWithAccessToken(baseUrl, tokenStorageKey, accessToken);
+    }
+
+}
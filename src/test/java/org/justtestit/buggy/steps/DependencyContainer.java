@@ -2,20 +2,161 @@ package org.justtestit.buggy.steps;
 
 import commons.properties.PropertiesManager;
 import commons.web.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
- * This class is used to store shared object instances and make them available to Hooks, PageInitializer and Steps classes.
+ * This class is the scenario-scoped registry of shared object instances, used by Hooks, PageInitializer and Steps classes.
+ * PicoContainer creates one DependencyContainer per scenario and injects it into every glue class of the scenario.
+ *
+ * Instances are created lazily by their registered provider on first use, so nothing is built until a step needs it.
+ * The container is confined to the thread running the scenario. When the scenario ends, the teardown actions of the
+ * created instances run in the reverse order of their creation.
  */
 public class DependencyContainer {
 
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(DependencyContainer.class);
+
+    private final Thread scenarioThread = Thread.currentThread();
+    private final Map<Class<?>, Provider<?>> providers = new HashMap<>();
+    private final Map<Class<?>, Object> instances = new HashMap<>();
+    private final Deque<Runnable> teardownActions = new ArrayDeque<>();
+    private boolean closed;
+
+    /**
+     * The provider of an instance: how to create it and how to tear it down.
+     *
+     * @param factory creates the instance
+     * @param teardown releases the instance at the end of the scenario, may be null
+     */
+    private record Provider<T>(Supplier<T> factory, Consumer<T> teardown) {
+    }
+
+    /**
+     * Registers the provider of an instance of the given type, replacing any previous provider. The instance is created
+     * on first use.
+     *
+     * @param type the type of the instance
+     * @param factory creates the instance
+     * @param teardown releases the instance at the end of the scenario, may be null
+     */
+    public <T> void register(Class<T> type, Supplier<T> factory, Consumer<T> teardown) {
+        checkAccess();
+        providers.put(type, new Provider<>(factory, teardown));
+    }
+
+    /**
+     * Returns the instance of the given type, creating it with its registered provider on first use.
+     *
+     * @param type the type of the instance
+     * @return the instance
+     * @throws IllegalStateException if no provider is registered for the type
+     */
+    public <T> T get(Class<T> type) {
+        checkAccess();
+        if (!instances.containsKey(type) && !providers.containsKey(type)) {
+            throw new IllegalStateException("No provider registered in DependencyContainer for: " + type.getName());
+        }
+        return getOrCreate(type, null);
+    }
+
+    /**
+     * Returns the instance of the given type, creating it on first use with its registered provider or, if none is
+     * registered, with the given factory (without teardown).
+     *
+     * @param type the type of the instance
+     * @param factory creates the instance if no provider is registered for the type
+     * @return the instance
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCreate(Class<T> type, Supplier<T> factory) {
+        checkAccess();
+        Object instance = instances.get(type);
+        if (instance != null) {
+            return (T) instance;
+        }
+        Provider<T> provider = (Provider<T>) providers.getOrDefault(type, new Provider<>(factory, null));
+        T createdInstance = provider.factory().get();
+        instances.put(type, createdInstance);
+        if (provider.teardown() != null) {
+            teardownActions.push(() -> provider.teardown().accept(createdInstance));
+        }
+        LOGGER.info("Created scenario instance of: " + type.getSimpleName());
+        return createdInstance;
+    }
+
     /**
-     * The instance of PropertiesManager class used to access and manage test configuration properties.
+     * Returns whether the instance of the given type has been created in this scenario.
+     *
+     * @param type the type of the instance
+     * @return true if the instance has been created, false otherwise
      */
-    protected PropertiesManager propertiesManager;
+    public boolean isCreated(Class<?> type) {
+        return instances.containsKey(type);
+    }
 
     /**
-     * The instance of WebDriverManager class used to manage WebDriver instance and its configuration.
+     * Returns the PropertiesManager of the scenario, used to access and manage test configuration properties.
+     *
+     * @return the PropertiesManager instance
      */
-    protected WebDriverManager webDriverManager;
+    public PropertiesManager getPropertiesManager() {
+        return get(PropertiesManager.class);
+    }
+
+    /**
+     * Returns the WebDriverManager of the scenario, used to manage WebDriver instance and its configuration.
+     *
+     * @return the WebDriverManager instance
+     */
+    public WebDriverManager getWebDriverManager() {
+        return get(WebDriverManager.class);
+    }
+
+    /**
+     * Runs the teardown actions of the created instances in reverse creation order, and closes the container.
+     * Every action runs even if a previous one failed; the first failure is rethrown with the others suppressed.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        checkAccess();
+        RuntimeException failure = null;
+        while (!teardownActions.isEmpty()) {
+            try {
+                teardownActions.pop().run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to tear down scenario instance", e);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        instances.clear();
+        closed = true;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void checkAccess() {
+        if (Thread.currentThread() != scenarioThread) {
+            throw new IllegalStateException("DependencyContainer of thread '" + scenarioThread.getName() + "' accessed from thread: " + Thread.currentThread().getName());
+        }
+        if (closed) {
+            throw new IllegalStateException("DependencyContainer accessed after the end of the scenario");
+        }
+    }
 
 }
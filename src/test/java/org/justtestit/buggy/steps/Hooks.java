@@ -1,7 +1,17 @@
 package org.justtestit.buggy.steps;
 
+import commons.api.ApiClient;
+import commons.logging.ScenarioLogAppender;
+import commons.monitor.ResourceMonitor;
+import commons.monitor.RunDashboard;
 import commons.properties.PropertiesManager;
+import commons.web.BrowserSelection;
+import commons.web.NetworkCapture;
 import commons.web.WebDriverManager;
+import commons.web.WebDriverSessionPool;
+import commons.web.WireRequestCounter;
+import org.justtestit.buggy.api.BuggyApi;
+import org.justtestit.buggy.api.BuggyApiStub;
 import org.justtestit.buggy.constant.Constants;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
@@ -9,8 +19,14 @@ import io.cucumber.java.Scenario;
 import org.openqa.selenium.OutputType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 
 /**
  * This class manages common steps of test scenarios that need to be performed before and after each test.
@@ -22,6 +38,7 @@ public class Hooks {
 
     //********** OBJECT DECLARATION **********
     private final DependencyContainer dependencyContainer;
+    private WireRequestCounter.Snapshot wireRequestsAtStart;
 
     /**
      * Constructor for Hooks class that takes a DependencyContainer object as a parameter.
@@ -39,13 +56,13 @@ public class Hooks {
      */
     @Before
     public void setUp(Scenario scenario) {
+        dependencyContainer.register(PropertiesManager.class, Hooks::loadConfig, null);
+        startScenarioLog(scenario);
         LOGGER.info("XXXXXXXXXX" + " START TEST SCENARIO " + "XXXXXXXXXX");
         LOGGER.info("Scenario: " + scenario.getName());
 
-        dependencyContainer.webDriverManager = new WebDriverManager(setConfig());
-        maximizeWindow();
-        setImplicitlyWait();
-        setPageLoadTimeout();
+        dependencyContainer.register(WebDriverManager.class, () -> startWebDriver(scenario), this::releaseWebDriver);
+        dependencyContainer.register(BuggyApi.class, this::createBuggyApi, null);
     }
 
     /**
@@ -55,18 +72,80 @@ public class Hooks {
      */
     @After()
     public void tearDown(Scenario scenario) {
-        captureScreenshot(scenario);
-        quitWebDriver();
-        LOGGER.info("XXXXXXXXXX" + " END TEST SCENARIO " + "XXXXXXXXXX");
+        try {
+            captureScreenshot(scenario);
+            logWireRequests(scenario);
+            stopNetworkCapture(scenario);
+            verifyBrowserMemoryGrowth(scenario);
+        } finally {
+            try {
+                dependencyContainer.close();
+            } finally {
+                LOGGER.info("XXXXXXXXXX" + " END TEST SCENARIO " + "XXXXXXXXXX");
+                finishScenarioLog(scenario);
+            }
+        }
+    }
+
+    /**
+     * Tags the log events of the scenario thread with the scenario id, thread and browser (MDC), so the log lines of
+     * parallel scenarios can be told apart and the ScenarioLogAppender collects the log of the scenario.
+     *
+     * @param scenario the scenario object that represents the current test scenario being executed
+     */
+    private void startScenarioLog(Scenario scenario) {
+        String scenarioId = toFileName(scenario) + "_" + scenario.getId().substring(0, 8);
+        ScenarioLogAppender.startScenario(scenarioId);
+        MDC.put(ScenarioLogAppender.SCENARIO_ID_KEY, scenarioId);
+        MDC.put("thread", Thread.currentThread().getName());
+        MDC.put("browser", BrowserSelection.getBrowserName(dependencyContainer.getPropertiesManager()));
+    }
+
+    /**
+     * Writes the log of a failed scenario to 'target/log/scenarios/<scenario>_line<line>.log' and attaches it to the
+     * scenario; the log of a passed scenario is discarded. Clears the MDC of the scenario thread.
+     *
+     * @param scenario The scenario that just ran
+     */
+    private void finishScenarioLog(Scenario scenario) {
+        String scenarioId = MDC.get(ScenarioLogAppender.SCENARIO_ID_KEY);
+        MDC.clear();
+        if (scenarioId == null) {
+            return;
+        }
+        String fileName = scenario.isFailed() ? toFileName(scenario) + ".log" : null;
+        List<Path> logFiles = ScenarioLogAppender.finishScenario(scenarioId, fileName);
+        for (Path logFile : logFiles) {
+            try {
+                scenario.attach(Files.readAllBytes(logFile), "text/plain", "ScenarioLog_" + scenario.getName());
+                LOGGER.info("Scenario log written to: " + logFile);
+            } catch (IOException e) {
+                LOGGER.error("Failed to attach scenario log: " + logFile, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the base name of the files of the scenario: '<scenario>_line<line>', followed by '_<browser>' if the
+     * browser was selected for the scenario (cross-browser matrix run), so the runs of a scenario per browser don't
+     * overwrite each other's files.
+     *
+     * @param scenario the scenario object that represents the current test scenario being executed
+     * @return the file name without extension
+     */
+    private static String toFileName(Scenario scenario) {
+        return scenario.getName().replaceAll("[^A-Za-z0-9]+", "_") + "_line" + scenario.getLine()
+                + BrowserSelection.getSelected().map(browser -> "_" + browser).orElse("");
     }
 
     /**
      * Reads the configuration properties file based on the environment type provided by command-line execution.
      * If environment type not provided by command-line execution, the default value 'config-qa' will be used.
+     * The runners use it as well, to read their configuration before the scenarios run.
      *
      * @return a PropertiesManager object containing the loaded properties
      */
-    private PropertiesManager setConfig() {
+    public static PropertiesManager loadConfig() {
         String environmentType = System.getProperty("config.file", Constants.CONFIG_QA);
         String configFilePath = null;
         switch (environmentType) {
@@ -83,15 +162,58 @@ public class Hooks {
                 configFilePath = Constants.PROD_CONFIG_PROPERTIES_PATH;
                 break;
         }
-        return dependencyContainer.propertiesManager = new PropertiesManager(configFilePath);
+        return new PropertiesManager(configFilePath);
+    }
+
+    /**
+     * Acquires a WebDriver session from the pool and configures it, when a step of the scenario first needs it.
+     * The session is only released at teardown once it is returned, so if its configuration fails, it is quit here,
+     * which also frees its browser slot.
+     *
+     * @param scenario the scenario object that represents the current test scenario being executed
+     * @return the WebDriverManager of the session
+     */
+    private WebDriverManager startWebDriver(Scenario scenario) {
+        RunDashboard.setBrowserState("acquiring");
+        WebDriverManager webDriverManager = WebDriverSessionPool.acquire(dependencyContainer.getPropertiesManager());
+        RunDashboard.setBrowserState("in use");
+        try {
+            maximizeWindow(webDriverManager);
+            setImplicitlyWait(webDriverManager);
+            setPageLoadTimeout(webDriverManager);
+            startResourceMonitoring(scenario, webDriverManager);
+            startNetworkCapture(scenario, webDriverManager);
+            wireRequestsAtStart = webDriverManager.getWireRequestCounter().snapshot();
+            return webDriverManager;
+        } catch (RuntimeException | Error e) {
+            LOGGER.error("Failed to configure the WebDriver session, quitting it", e);
+            ResourceMonitor.unregisterScenario();
+            WebDriverSessionPool.release(webDriverManager, false);
+            RunDashboard.setBrowserState("quit");
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the client of the Buggy backend API, when a step of the scenario first needs it. The API base URL is the
+     * 'api.base.url' property, or the local API stub if the 'api.stub' property is set to true.
+     *
+     * @return the BuggyApi of the scenario
+     */
+    private BuggyApi createBuggyApi() {
+        PropertiesManager propertiesManager = dependencyContainer.getPropertiesManager();
+        boolean stub = Boolean.parseBoolean(System.getProperty("api.stub", propertiesManager.getProperty("api.stub", "false")));
+        String apiBaseUrl = stub ? BuggyApiStub.getShared().getBaseUrl() : System.getProperty("api.base.url", propertiesManager.getProperty("api.base.url"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(System.getProperty("api.timeout", propertiesManager.getProperty("api.timeout", "30"))));
+        return new BuggyApi(new ApiClient(apiBaseUrl, timeout));
     }
 
     /**
      * This method maximizes the web browser window if the 'windows.maximize' property in the configuration file is set to true.
      */
-    private void maximizeWindow() {
-        if(dependencyContainer.propertiesManager.getPropertyAsBoolean("windows.maximize")) {
-            dependencyContainer.webDriverManager.getDriver().manage().window().maximize();
+    private void maximizeWindow(WebDriverManager webDriverManager) {
+        if(dependencyContainer.getPropertiesManager().getPropertyAsBoolean("windows.maximize")) {
+            webDriverManager.getDriver().manage().window().maximize();
             LOGGER.info("Browser windows maximized successfully");
         }
     }
@@ -99,10 +221,10 @@ public class Hooks {
     /**
      * This method sets the implicit wait timeout if the 'implicitly.wait' property in the configuration file is set to a non-zero value.
      */
-    private void setImplicitlyWait() {
-        long implicitlyWaitTimeout = dependencyContainer.propertiesManager.getPropertyAsLong("implicitly.wait");
+    private void setImplicitlyWait(WebDriverManager webDriverManager) {
+        long implicitlyWaitTimeout = dependencyContainer.getPropertiesManager().getPropertyAsLong("implicitly.wait");
         if (implicitlyWaitTimeout > 0) {
-            dependencyContainer.webDriverManager.getDriver().manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitlyWaitTimeout));
+            webDriverManager.setImplicitWait(Duration.ofSeconds(implicitlyWaitTimeout));
             LOGGER.info("Implicit wait '" + implicitlyWaitTimeout + " second(s)' implemented successfully");
         } else {
             LOGGER.info("Implicit wait not implemented");
@@ -112,41 +234,133 @@ public class Hooks {
     /**
      * This method sets the page load timeout if the 'page.load.timeout' property in the configuration file is set to a non-zero value.
      */
-    private void setPageLoadTimeout() {
-        long pageLoadTimeout = dependencyContainer.propertiesManager.getPropertyAsLong("page.load.timeout");
+    private void setPageLoadTimeout(WebDriverManager webDriverManager) {
+        long pageLoadTimeout = dependencyContainer.getPropertiesManager().getPropertyAsLong("page.load.timeout");
         if (pageLoadTimeout > 0) {
-            dependencyContainer.webDriverManager.getDriver().manage().timeouts().pageLoadTimeout(Duration.ofSeconds(pageLoadTimeout));
+            webDriverManager.getDriver().manage().timeouts().pageLoadTimeout(Duration.ofSeconds(pageLoadTimeout));
             LOGGER.info("Page load timeout '" + pageLoadTimeout + " second(s)' implemented successfully");
         } else {
             LOGGER.info("Page load timeout not implemented");
         }
     }
 
+    /**
+     * Starts the resource monitor and tracks the driver and browser processes of the scenario, if the 'resource.monitor'
+     * property in the configuration file is set to true.
+     *
+     * @param scenario the scenario object that represents the current test scenario being executed
+     * @param webDriverManager the WebDriverManager of the scenario
+     */
+    private void startResourceMonitoring(Scenario scenario, WebDriverManager webDriverManager) {
+        PropertiesManager propertiesManager = dependencyContainer.getPropertiesManager();
+        if (propertiesManager.getPropertyAsBoolean("resource.monitor")) {
+            ResourceMonitor.start(propertiesManager.getPropertyAsLong("resource.monitor.interval"));
+            ResourceMonitor.registerScenario(scenario.getName(), webDriverManager.getDriverProcess());
+            LOGGER.info("Resource monitoring started for the scenario");
+        }
+    }
+
+    /**
+     * Stops tracking the scenario in the resource monitor. If the 'resource.monitor.strict' property in the configuration
+     * file is set to true, fails the scenario when its browser memory grew more than 'resource.monitor.max.browser.memory.growth' MB.
+     *
+     * @param scenario The scenario that just ran
+     */
+    private void verifyBrowserMemoryGrowth(Scenario scenario) {
+        if (!dependencyContainer.isCreated(WebDriverManager.class) || !dependencyContainer.getPropertiesManager().getPropertyAsBoolean("resource.monitor")) {
+            return;
+        }
+        PropertiesManager propertiesManager = dependencyContainer.getPropertiesManager();
+        long browserMemoryGrowth = ResourceMonitor.unregisterScenario();
+        long maxBrowserMemoryGrowth = propertiesManager.getPropertyAsLong("resource.monitor.max.browser.memory.growth");
+        if (propertiesManager.getPropertyAsBoolean("resource.monitor.strict") && browserMemoryGrowth > maxBrowserMemoryGrowth) {
+            LOGGER.error("Browser memory grew by " + browserMemoryGrowth + " MB, more than the limit of " + maxBrowserMemoryGrowth + " MB");
+            throw new AssertionError("Scenario '" + scenario.getName() + "' leaked browser memory: grew by " + browserMemoryGrowth + " MB, limit is " + maxBrowserMemoryGrowth + " MB");
+        }
+    }
+
+    /**
+     * Logs the WebDriver wire protocol requests (HTTP round-trips to the driver) made by the scenario, in total and per
+     * command, and adds the total to the scenario report.
+     *
+     * @param scenario The scenario that just ran
+     */
+    private void logWireRequests(Scenario scenario) {
+        if (!dependencyContainer.isCreated(WebDriverManager.class)) {
+            return;
+        }
+        WireRequestCounter.Snapshot wireRequests = dependencyContainer.getWebDriverManager().getWireRequestCounter().snapshot().since(wireRequestsAtStart);
+        LOGGER.info("Scenario made " + wireRequests);
+        scenario.log("WebDriver wire requests: " + wireRequests.requestCount() + " (" + wireRequests.roundTripMillis() + " ms round-trip)");
+    }
+
+    /**
+     * Starts recording the network requests and console errors of the scenario into
+     * 'target/network-capture/<scenario>_line<line>.ndjson.gz', if the 'network.capture' property is set to true.
+     *
+     * @param scenario the scenario object that represents the current test scenario being executed
+     * @param webDriverManager the WebDriverManager of the scenario
+     */
+    private void startNetworkCapture(Scenario scenario, WebDriverManager webDriverManager) {
+        webDriverManager.getNetworkCapture().ifPresent(networkCapture -> {
+            networkCapture.start(Path.of("target", "network-capture", toFileName(scenario) + ".ndjson.gz"));
+        });
+    }
+
+    /**
+     * Stops recording the network requests and console errors of the scenario. If the scenario has failed, the
+     * recording and its metrics are attached to the scenario, otherwise the recording is deleted.
+     *
+     * @param scenario The scenario that just ran
+     */
+    private void stopNetworkCapture(Scenario scenario) {
+        if (!dependencyContainer.isCreated(WebDriverManager.class)) {
+            return;
+        }
+        NetworkCapture.Summary summary = dependencyContainer.getWebDriverManager().getNetworkCapture().map(NetworkCapture::stop).orElse(null);
+        if (summary == null) {
+            return;
+        }
+        try {
+            if (scenario.isFailed()) {
+                scenario.attach(Files.readAllBytes(summary.file()), "application/gzip", "NetworkCapture_" + summary.file().getFileName());
+                scenario.attach(summary.toString(), "text/plain", "NetworkCaptureSummary_" + scenario.getName());
+                LOGGER.info("Network capture attached to the given scenario");
+            } else {
+                Files.deleteIfExists(summary.file());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to attach or delete network capture: " + summary.file(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Captures a screenshot and attaches it to the given scenario if the scenario has failed.
      *
      * @param scenario The scenario to attach the screenshot to
      */
     private void captureScreenshot(Scenario scenario) {
-        if(scenario.isFailed() && dependencyContainer.webDriverManager != null) {
-            byte[] screenshot = dependencyContainer.webDriverManager.getTakesScreenshot().getScreenshotAs(OutputType.BYTES);
+        if(scenario.isFailed() && dependencyContainer.isCreated(WebDriverManager.class)) {
+            byte[] screenshot = dependencyContainer.getWebDriverManager().getTakesScreenshot().getScreenshotAs(OutputType.BYTES);
             scenario.attach(screenshot, "image/png", "FailedScreenshot_" + scenario.getName());
             LOGGER.info("Screenshot captured and attached to the given scenario");
         } else {
-            LOGGER.info("Skipped capturing screenshot, because webDriverManager is null");
+            LOGGER.info("Skipped capturing screenshot, because the scenario passed or didn't use a WebDriver session");
         }
     }
 
     /**
-     * Closes the web browser window(s) and ends the WebDriver session.
+     * Releases the WebDriver session at the end of the scenario. If the 'session.reuse' property is set to true, the
+     * session is reset and kept for the next scenario when the reset is clean; otherwise the web browser window(s) are
+     * closed and the session is ended.
+     *
+     * @param webDriverManager the WebDriverManager of the scenario
      */
-    private void quitWebDriver() {
-        if (dependencyContainer.webDriverManager != null) {
-            dependencyContainer.webDriverManager.getDriver().quit();
-            LOGGER.info("Closed web browser window(s) and ended the WebDriver session");
-        } else {
-            LOGGER.info("Skipped quiting WebDriver session, because webDriverManager is already null");
-        }
+    private void releaseWebDriver(WebDriverManager webDriverManager) {
+        boolean reuse = Boolean.parseBoolean(System.getProperty("session.reuse", dependencyContainer.getPropertiesManager().getProperty("session.reuse")));
+        WebDriverSessionPool.release(webDriverManager, reuse);
+        RunDashboard.setBrowserState(reuse ? "released for reuse" : "quit");
     }
 
 }
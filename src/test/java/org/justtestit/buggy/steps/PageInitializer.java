@@ -1,26 +1,21 @@
 package org.justtestit.buggy.steps;
 
 import commons.properties.PropertiesManager;
+import commons.web.PageObjectFactory;
 import commons.web.WebDriverManager;
-import org.justtestit.buggy.pages.HomePage;
-import org.justtestit.buggy.pages.ProfilePage;
-import org.justtestit.buggy.pages.RegisterPage;
-import org.justtestit.buggy.pages.DashboardPage;
+import org.justtestit.buggy.api.ApiSession;
+import org.justtestit.buggy.api.BuggyApi;
 
 /**
  * This class is responsible for initializing page object classes and providing the page objects to step classes.
- * All page object classes should be initialized through this class.
+ * All page object classes should be initialized through this class, with getPage(PageClass.class).
+ * Page objects and managers are read lazily from the scenario's DependencyContainer, so every step class of a scenario
+ * shares the same instances, created on first use.
  */
 public class PageInitializer {
 
     //********** OBJECT DECLARATION **********
-    protected final WebDriverManager webDriverManager;
-    protected final PropertiesManager propertiesManager;
-
-    private HomePage homePage;
-    private DashboardPage dashboardPage;
-    private RegisterPage registerPage;
-    private ProfilePage profilePage;
+    private final DependencyContainer dependencyContainer;
 
     /**
      * Constructor to initialize the PageInitializer class.
@@ -28,60 +23,54 @@ public class PageInitializer {
      * @param dependencyContainer An instance of the DependencyContainer class
      */
     public PageInitializer(DependencyContainer dependencyContainer) {
-        this.webDriverManager = dependencyContainer.webDriverManager;
-        this.propertiesManager = dependencyContainer.propertiesManager;
+        this.dependencyContainer = dependencyContainer;
+    }
+
+    /**
+     * Method to return the WebDriverManager of the scenario.
+     *
+     * @return The WebDriverManager instance
+     */
+    protected WebDriverManager getWebDriverManager() {
+        return dependencyContainer.getWebDriverManager();
     }
 
     /**
-     * Method to initialize HomePage and return the instance.
+     * Method to return the PropertiesManager of the scenario.
      *
-     * @return An instance of the HomePage class
+     * @return The PropertiesManager instance
      */
-    protected HomePage getHomePage() {
-        if(homePage == null) {
-            return homePage = new HomePage(webDriverManager);
-        } else {
-            return homePage;
-        }
+    protected PropertiesManager getPropertiesManager() {
+        return dependencyContainer.getPropertiesManager();
     }
 
     /**
-     * Method to initialize DashboardPage and return the instance.
+     * Method to return the Buggy backend API of the scenario.
      *
-     * @return An instance of the DashboardPage class
+     * @return The BuggyApi instance
      */
-    protected DashboardPage getDashboardPage() {
-        if(dashboardPage == null) {
-            return dashboardPage = new DashboardPage(webDriverManager);
-        } else {
-            return dashboardPage;
-        }
+    protected BuggyApi getBuggyApi() {
+        return dependencyContainer.get(BuggyApi.class);
     }
 
     /**
-     * Method to initialize RegisterPage and return the instance.
+     * Method to return the API state of the scenario, shared by all step classes of the scenario.
      *
-     * @return An instance of the RegisterPage class
+     * @return The ApiSession instance
      */
-    protected RegisterPage getRegisterPage() {
-        if(registerPage == null) {
-            return registerPage = new RegisterPage(webDriverManager);
-        } else {
-            return registerPage;
-        }
+    protected ApiSession getApiSession() {
+        return dependencyContainer.getOrCreate(ApiSession.class, ApiSession::new);
     }
 
     /**
-     * Method to initialize ProfilePage and return the instance.
+     * Method to return the page object of the given class. The page object is created on first use and shared by all
+     * step classes of the scenario.
      *
-     * @return An instance of the ProfilePage class
+     * @param pageClass The page class, with a public constructor taking a WebDriverManager
+     * @return The instance of the page class
      */
-    protected ProfilePage getProfilePage() {
-        if(profilePage == null) {
-            return profilePage = new ProfilePage(webDriverManager);
-        } else {
-            return profilePage;
-        }
+    protected <T> T getPage(Class<T> pageClass) {
+        return dependencyContainer.getOrCreate(pageClass, () -> PageObjectFactory.create(pageClass, getWebDriverManager()));
     }
 
 }
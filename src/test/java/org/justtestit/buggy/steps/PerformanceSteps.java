@@ -0,0 +1,47 @@
+package org.justtestit.buggy.steps;
+
+import commons.web.PageTiming;
+import io.cucumber.java.en.Then;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+
+import java.util.List;
+
+/**
+ * This class contains the implementation of page performance step definitions that correspond to feature files.
+ * It extends the PageInitializer class to access the page objects and driver.
+ */
+public class PerformanceSteps extends PageInitializer {
+
+    //********** LOGGER OBJECT DECLARATION/INITIALIZATION **********
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceSteps.class);
+
+    /**
+     * Constructor to initialize the PerformanceSteps class.
+     *
+     * @param dependencyContainer An instance of the DependencyContainer class
+     */
+    public PerformanceSteps(DependencyContainer dependencyContainer) {
+        super(dependencyContainer);
+    }
+
+    //********** STEP DEFINITION METHODS **********
+
+    @Then("the page should load within {int} seconds")
+    public void the_page_should_load_within_seconds(int seconds) {
+        LOGGER.info("Then the page should load within {int} seconds");
+        PageTiming pageTiming = getWebDriverManager().getPerformanceCollector().collect();
+        Assert.assertTrue(pageTiming.load() >= 0, "Page load time not reported by the browser for " + pageTiming.url());
+        Assert.assertTrue(pageTiming.load() <= seconds * 1000L, "Page " + pageTiming.url() + " loaded in " + pageTiming.load() + " ms, expected within " + seconds + " second(s)");
+    }
+
+    @Then("the page should be within its performance budget")
+    public void the_page_should_be_within_its_performance_budget() {
+        LOGGER.info("Then the page should be within its performance budget");
+        PageTiming pageTiming = getWebDriverManager().getPerformanceCollector().collect();
+        List<String> violations = getWebDriverManager().getPerformanceCollector().checkBudgets(pageTiming);
+        Assert.assertTrue(violations.isEmpty(), "Performance budget exceeded: " + violations);
+    }
+
+}
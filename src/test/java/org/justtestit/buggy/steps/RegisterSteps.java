@@ -1,10 +1,15 @@
 package org.justtestit.buggy.steps;
 
 import com.github.javafaker.Faker;
+import commons.web.PageSnapshot;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import org.justtestit.buggy.pages.DashboardPage;
+import org.justtestit.buggy.pages.HomePage;
+import org.justtestit.buggy.pages.ProfilePage;
+import org.justtestit.buggy.pages.RegisterPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
@@ -39,7 +44,7 @@ public class RegisterSteps extends PageInitializer {
     @Given("I am at Buggy register page")
     public void i_am_at_Buggy_register_page() {
         LOGGER.info("Given I am at Buggy register page");
-        getRegisterPage().open(propertiesManager.getProperty("base.url"));
+        getPage(RegisterPage.class).open(System.getProperty("base.url", getPropertiesManager().getProperty("base.url")));
     }
 
     @When("I register with valid data")
@@ -50,7 +55,7 @@ public class RegisterSteps extends PageInitializer {
         Faker faker = new Faker();
         dynamicLoginUserName = faker.name().username();
         loginUserPassword = rows.get(0).get("password");
-        getRegisterPage().register(
+        getPage(RegisterPage.class).register(
                 dynamicLoginUserName,
                 rows.get(0).get("firstName"),
                 rows.get(0).get("lastName"),
@@ -61,13 +66,13 @@ public class RegisterSteps extends PageInitializer {
     @Then("I should see the notification message: {string}")
     public void i_should_see_the_notification_message(String notificationMessage) {
         LOGGER.info("Then I should see the notification message: {string}");
-        Assert.assertTrue(getRegisterPage().isRegistrationSuccessfulMessageDisplayed(notificationMessage), "Notification message '" + notificationMessage + "' not displayed");
+        Assert.assertTrue(getPage(RegisterPage.class).isRegistrationSuccessfulMessageDisplayed(notificationMessage), "Notification message '" + notificationMessage + "' not displayed");
     }
 
     @When("I login with registered user")
     public void i_login_with_registered_user() {
         LOGGER.info("When I login with registered user");
-        getHomePage().login(dynamicLoginUserName, loginUserPassword);
+        getPage(HomePage.class).login(dynamicLoginUserName, loginUserPassword);
     }
 
     @Then("I should see the valid user info under user profile page")
@@ -75,11 +80,12 @@ public class RegisterSteps extends PageInitializer {
         LOGGER.info("Then I should see the valid user info under user profile page");
         List<Map<String, String>> rows = dataTable.asMaps(String.class, String.class);
 
-        getDashboardPage().clickProfileLink();
+        getPage(DashboardPage.class).clickProfileLink();
+        PageSnapshot userInfo = getPage(ProfilePage.class).getUserInfoSnapshot();
         SoftAssert softAssert = new SoftAssert();
-        softAssert.assertEquals(getProfilePage().getLoginValue(), dynamicLoginUserName);
-        softAssert.assertEquals(getProfilePage().getFirstNameValue(), rows.get(0).get("firstName"));
-        softAssert.assertEquals(getProfilePage().getLastNameValue(), rows.get(0).get("lastName"));
+        softAssert.assertEquals(userInfo.getValue("login"), dynamicLoginUserName);
+        softAssert.assertEquals(userInfo.getValue("firstName"), rows.get(0).get("firstName"));
+        softAssert.assertEquals(userInfo.getValue("lastName"), rows.get(0).get("lastName"));
         softAssert.assertAll();
     }
 
@@ -87,7 +93,7 @@ public class RegisterSteps extends PageInitializer {
     public void i_try_to_register_with_existing_user(DataTable dataTable) {
         LOGGER.info("When I try to register with existing user");
         List<Map<String, String>> rows = dataTable.asMaps(String.class, String.class);
-        getRegisterPage().register(
+        getPage(RegisterPage.class).register(
                 rows.get(0).get("login"),
                 rows.get(0).get("firstName"),
                 rows.get(0).get("lastName"),
@@ -98,7 +104,7 @@ public class RegisterSteps extends PageInitializer {
     @Then("I should see the error message: {string}")
         public void i_should_see_the_error_message(String errorMessage) {
         LOGGER.info("Then I should see the error message: {string}");
-        Assert.assertTrue(getRegisterPage().isUserAlreadyExistsErrorMessageDisplayed(errorMessage), "Error message '" + errorMessage + "' not displayed");
+        Assert.assertTrue(getPage(RegisterPage.class).isUserAlreadyExistsErrorMessageDisplayed(errorMessage), "Error message '" + errorMessage + "' not displayed");
     }
 
 }
@@ -0,0 +1,7 @@
+@regression @api
+Feature: API test setup
+
+  Scenario: Verify user registration and login through the API
+    Given a new user is registered through the API
+    When the registered user logs in through the API
+    Then the API should return the registered user profile
\ No newline at end of file
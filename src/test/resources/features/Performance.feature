@@ -0,0 +1,12 @@
+@performance
+Feature: Page performance
+
+  Scenario: Verify login page load time and performance budget
+    Given I am at Buggy login page
+    Then the page should load within 10 seconds
+    And the page should be within its performance budget
+
+  Scenario: Verify register page load time and performance budget
+    Given I am at Buggy register page
+    Then the page should load within 10 seconds
+    And the page should be within its performance budget
\ No newline at end of file
@@ -0,0 +1,8 @@
+@regression
+Feature: User Profile
+
+  Scenario: Verify user info of a user registered through the API
+    Given a new user is registered through the API
+    And I am logged in to Buggy through the API as the registered user
+    Then I should see the registered user first name
+    And I should see the registered user info under user profile page
\ No newline at end of file